@@ -0,0 +1,67 @@
+package com.github.srbarber1997.configuration.benchmark;
+
+import com.github.srbarber1997.configuration.benchmark.fixture.FixtureModel;
+import com.github.srbarber1997.configuration.codec.BinaryCodec;
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading and writing a config in the json and binary formats,
+ * from and to bytes in memory so only the encoding is measured. Both
+ * stream the config through its cached type adapter
+ * @see com.github.srbarber1997.configuration.Format
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FormatBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int entries;
+
+    private final BinaryCodec codec = new BinaryCodec();
+    private FixtureModel model;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws Exception {
+        model = FixtureModel.create(entries);
+        json = writeJson();
+        binary = writeBinary();
+    }
+
+    @Benchmark
+    public FixtureModel readJson() throws IOException {
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8);
+        return GsonCache.fromJson(FixtureModel.class, reader);
+    }
+
+    @Benchmark
+    public Object readBinary() throws Exception {
+        return codec.read(new ByteArrayInputStream(binary), FixtureModel.class);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        GsonCache.get(FixtureModel.class).toJson(model, writer);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(model, out);
+        return out.toByteArray();
+    }
+}
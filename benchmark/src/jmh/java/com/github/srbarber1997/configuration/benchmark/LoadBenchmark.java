@@ -0,0 +1,49 @@
+package com.github.srbarber1997.configuration.benchmark;
+
+import com.github.srbarber1997.configuration.ConfigLoader;
+import com.github.srbarber1997.configuration.benchmark.fixture.FixtureFiles;
+import com.github.srbarber1997.configuration.benchmark.fixture.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the first {@link ConfigLoader#load()} of the generated fixture
+ * configs. The loader only loads once, so each fork measures a single cold
+ * load, including the classpath scan or index read
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class LoadBenchmark {
+
+    @Param({"10", "1000"})
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = FixtureFiles.create(Fixtures.COUNT, entries);
+        ConfigLoader.chooseDirectoryLocation(directory.toFile());
+        ConfigLoader.useParallelLoading(parallel);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FixtureFiles.delete(directory);
+    }
+
+    @Benchmark
+    public void load() {
+        ConfigLoader.load(false);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.srbarber1997.configuration.benchmark;
+
+import com.github.srbarber1997.configuration.ConfigLoader;
+import com.github.srbarber1997.configuration.ConfigSnapshot;
+import com.github.srbarber1997.configuration.benchmark.fixture.FixtureFiles;
+import com.github.srbarber1997.configuration.benchmark.fixture.FixtureModel;
+import com.github.srbarber1997.configuration.benchmark.fixture.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ConfigLoader#reload()} and {@link ConfigLoader#save()} of the
+ * generated fixture configs. The number of configs is set when the fixtures are
+ * generated, with {@code -PfixtureConfigs}, the size of each with {@link #entries}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LoaderBenchmark {
+
+    @Param({"10", "1000"})
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = FixtureFiles.create(Fixtures.COUNT, entries);
+        ConfigLoader.chooseDirectoryLocation(directory.toFile());
+        ConfigLoader.useParallelLoading(parallel);
+        ConfigLoader.load(false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FixtureFiles.delete(directory);
+    }
+
+    @Benchmark
+    public void reload() {
+        ConfigLoader.reload();
+    }
+
+    /**
+     * Every config is serialized but none have changed, so none are written
+     */
+    @Benchmark
+    public void saveUnchanged() {
+        ConfigLoader.save();
+    }
+
+    /**
+     * Every config has changed, so every config is serialized and written
+     */
+    @Benchmark
+    public void saveChanged() {
+        ConfigSnapshot snapshot = ConfigLoader.snapshot();
+        for (String name : snapshot.getNames())
+            snapshot.get(name, FixtureModel.class).touch();
+        ConfigLoader.save();
+    }
+}
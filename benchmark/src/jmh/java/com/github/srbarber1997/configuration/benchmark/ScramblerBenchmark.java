@@ -0,0 +1,91 @@
+package com.github.srbarber1997.configuration.benchmark;
+
+import com.github.srbarber1997.configuration.util.Scrambler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the string and streaming forms of the {@link Scrambler},
+ * as used for configs that are not readable. Run with the gc profiler
+ * to compare how much each form allocates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ScramblerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int length;
+
+    private final Scrambler scrambler = new Scrambler("config loader");
+
+    private String json;
+    private String scrambled;
+    private final char[] buffer = new char[8192];
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; builder.length() < length; i++)
+            builder.append("{\"key\":\"value").append(i).append("\",\"num\":").append(i).append("},");
+        builder.setLength(length - 1);
+        json = builder.append(']').toString();
+        scrambled = scrambler.scrambleCharacters(json);
+    }
+
+    @Benchmark
+    public String scrambleString() {
+        return scrambler.scrambleCharacters(json);
+    }
+
+    @Benchmark
+    public void scrambleWriter(Blackhole blackhole) throws IOException {
+        Writer writer = scrambler.scramblingWriter(new BlackholeWriter(blackhole));
+        writer.write(json);
+        writer.flush();
+    }
+
+    @Benchmark
+    public String unscrambleString() {
+        return scrambler.unscrambleCharacters(scrambled);
+    }
+
+    @Benchmark
+    public void unscrambleReader(Blackhole blackhole) throws IOException {
+        Reader reader = scrambler.unscramblingReader(new StringReader(scrambled));
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1)
+            blackhole.consume(read);
+        blackhole.consume(buffer);
+    }
+
+    /**
+     * Writer that discards what is written, standing in for a file
+     */
+    static class BlackholeWriter extends Writer {
+
+        private final Blackhole blackhole;
+
+        BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            blackhole.consume(cbuf);
+            blackhole.consume(len);
+        }
+
+        @Override
+        public void flush() { }
+
+        @Override
+        public void close() { }
+    }
+}
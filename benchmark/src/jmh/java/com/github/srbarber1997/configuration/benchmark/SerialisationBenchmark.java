@@ -0,0 +1,68 @@
+package com.github.srbarber1997.configuration.benchmark;
+
+import com.github.srbarber1997.configuration.benchmark.fixture.FixtureModel;
+import com.github.srbarber1997.configuration.benchmark.fixture.FixtureSerialiserModel;
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing and deserializing a config with plain gson, the
+ * loader's cached gson and {@link com.github.srbarber1997.configuration.serialise.GsonSerialiserConfigBase}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SerialisationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int entries;
+
+    private FixtureModel model;
+    private FixtureSerialiserModel serialiserModel;
+    private String json;
+
+    @Setup
+    public void setup() {
+        model = FixtureModel.create(entries);
+        serialiserModel = FixtureSerialiserModel.create(entries);
+        json = new Gson().toJson(model);
+    }
+
+    @Benchmark
+    public String serializeGson() {
+        return new Gson().toJson(model);
+    }
+
+    @Benchmark
+    public FixtureModel deserializeGson() {
+        return new Gson().fromJson(json, FixtureModel.class);
+    }
+
+    @Benchmark
+    public String serializeCachedGson() {
+        return GsonCache.get(FixtureModel.class).toJson(model);
+    }
+
+    @Benchmark
+    public FixtureModel deserializeCachedGson() throws IOException {
+        return GsonCache.fromJson(FixtureModel.class, new StringReader(json));
+    }
+
+    @Benchmark
+    public String serializeSerialiserBase() {
+        return serialiserModel.serialise(serialiserModel);
+    }
+
+    @Benchmark
+    public Object deserializeSerialiserBase() {
+        return serialiserModel.deserialize(json, FixtureSerialiserModel.class);
+    }
+}
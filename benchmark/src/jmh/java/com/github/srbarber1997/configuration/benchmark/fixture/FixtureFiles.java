@@ -0,0 +1,47 @@
+package com.github.srbarber1997.configuration.benchmark.fixture;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the config files of the generated {@code Fixtures} configs,
+ * so the loader benchmarks read existing files rather than creating defaults
+ */
+public final class FixtureFiles {
+
+    private FixtureFiles() { }
+
+    /**
+     * Method that creates a config directory holding a file for every fixture config
+     * @param configs number of fixture configs, {@code Fixtures.COUNT}
+     * @param entries number of entries in each config
+     * @return the created directory
+     * @throws IOException if a file could not be written
+     */
+    public static Path create(int configs, int entries) throws IOException {
+        Path directory = Files.createTempDirectory("config-benchmark");
+        Path fixtures = Files.createDirectories(directory.resolve("fixture"));
+        String json = new Gson().toJson(FixtureModel.create(entries));
+        for (int i = 0; i < configs; i++)
+            try (Writer writer = Files.newBufferedWriter(fixtures.resolve(i + ".config"), Charset.defaultCharset())) {
+                writer.write(json);
+            }
+        return directory;
+    }
+
+    /**
+     * Method that deletes a directory created by {@link #create(int, int)}
+     * @param directory to delete
+     * @throws IOException if the directory could not be deleted
+     */
+    public static void delete(Path directory) throws IOException {
+        MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.srbarber1997.configuration.benchmark.fixture;
+
+import com.github.srbarber1997.configuration.ConfigurationModel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model of the generated fixture configs, serialized by plain gson.
+ * The number of entries decides the size of its config file
+ */
+@ConfigurationModel
+public class FixtureModel {
+
+    private String name;
+    private int number;
+    private boolean enabled;
+    private List<Double> weights;
+    private Map<String, String> entries;
+
+    /**
+     * Method that creates a fixture with generated values
+     * @param entries number of map entries and weights
+     * @return the fixture
+     */
+    public static FixtureModel create(int entries) {
+        FixtureModel model = new FixtureModel();
+        model.name = "fixture";
+        model.number = entries;
+        model.enabled = true;
+        model.weights = new ArrayList<>(entries);
+        model.entries = new LinkedHashMap<>(entries);
+        for (int i = 0; i < entries; i++) {
+            model.weights.add(i / 7.0);
+            model.entries.put("key" + i, "value" + i);
+        }
+        return model;
+    }
+
+    /**
+     * Method that changes the fixture so it is written when saved
+     */
+    public void touch() {
+        number++;
+    }
+}
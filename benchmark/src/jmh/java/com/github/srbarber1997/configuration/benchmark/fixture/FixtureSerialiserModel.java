@@ -0,0 +1,48 @@
+package com.github.srbarber1997.configuration.benchmark.fixture;
+
+import com.github.srbarber1997.configuration.ConfigurationModel;
+import com.github.srbarber1997.configuration.serialise.GsonSerialiserConfigBase;
+import com.google.gson.GsonBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The same fixture as {@link FixtureModel}, serialized
+ * through {@link GsonSerialiserConfigBase}
+ */
+@ConfigurationModel
+public class FixtureSerialiserModel extends GsonSerialiserConfigBase {
+
+    private String name;
+    private int number;
+    private boolean enabled;
+    private List<Double> weights;
+    private Map<String, String> entries;
+
+    /**
+     * Method that creates a fixture with generated values
+     * @param entries number of map entries and weights
+     * @return the fixture
+     */
+    public static FixtureSerialiserModel create(int entries) {
+        FixtureSerialiserModel model = new FixtureSerialiserModel();
+        model.name = "fixture";
+        model.number = entries;
+        model.enabled = true;
+        model.weights = new ArrayList<>(entries);
+        model.entries = new LinkedHashMap<>(entries);
+        for (int i = 0; i < entries; i++) {
+            model.weights.add(i / 7.0);
+            model.entries.put("key" + i, "value" + i);
+        }
+        return model;
+    }
+
+    @Override
+    public GsonBuilder serializer(GsonBuilder gsonBuilder) {
+        return gsonBuilder.disableHtmlEscaping();
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.srbarber1997.configuration;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes files so they are either completely replaced or left as they were.
+ * The contents are written to a temporary file next to the target, which is
+ * then renamed over the target. Readers never see a partly written file
+ * @see Durability
+ */
+class AtomicFileWriter {
+
+    /**
+     * Suffix of the temporary file written before the rename
+     */
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFileWriter() { }
+
+    /**
+     * Method that atomically replaces the contents of a file with the
+     * bytes streamed to an output stream
+     * @param target file to write
+     * @param durability how far the file is forced to the disk
+     * @param content that writes the bytes, the stream should not be closed
+     * @throws IOException if the file could not be written or the content failed,
+     * the target is left unchanged
+     */
+    static void write(File target, Durability durability, Content content) throws IOException {
+        try (Pending pending = open(target, durability)) {
+            try {
+                content.write(pending.stream());
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            pending.commit();
+        }
+    }
+
+    /**
+     * Method that opens the temporary file of a target, for the caller to
+     * stream the contents to and then decide whether to replace the target
+     * @param target file to write
+     * @param durability how far the file is forced to the disk
+     * @return the temporary file, discarded when closed unless committed
+     * @throws IOException if the temporary file could not be created
+     */
+    static Pending open(File target, Durability durability) throws IOException {
+        return new Pending(target.toPath().toAbsolutePath(), durability);
+    }
+
+    /**
+     * Temporary file of a target being written. It replaces the target when
+     * committed, and is deleted, leaving the target unchanged, when closed otherwise
+     */
+    static final class Pending implements Closeable {
+
+        private final Path path;
+        private final Path temp;
+        private final Durability durability;
+        private final FileChannel channel;
+        private final OutputStream out;
+        private boolean committed;
+
+        private Pending(Path path, Durability durability) throws IOException {
+            this.path = path;
+            this.temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+            this.durability = durability;
+            this.channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new BufferedOutputStream(Channels.newOutputStream(channel));
+        }
+
+        /**
+         * @return stream of the temporary file, which should not be closed
+         */
+        OutputStream stream() {
+            return out;
+        }
+
+        /**
+         * Method that forces the temporary file to the disk, as far as the
+         * durability asks, and renames it over the target
+         * @throws IOException if the target could not be replaced, it is left unchanged
+         */
+        void commit() throws IOException {
+            out.flush();
+            if (durability != Durability.NONE)
+                channel.force(true);
+            channel.close();
+            move(temp, path);
+            committed = true;
+
+            if (durability == Durability.FSYNC_DIRECTORY)
+                forceDirectory(path.getParent());
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                if (!committed)
+                    Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Writes the bytes of a file
+     */
+    interface Content {
+        void write(OutputStream out) throws Exception;
+    }
+
+    /**
+     * Method that renames a file over another, atomically where the platform allows
+     * @param source file to rename
+     * @param target file to replace
+     * @throws IOException if the file could not be renamed
+     */
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Method that forces a directory entry to the disk. Not every platform
+     * allows a directory to be opened, on those the rename is left to the
+     * operating system
+     * @param directory to force
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) { }
+    }
+}
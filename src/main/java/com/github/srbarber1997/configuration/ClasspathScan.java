@@ -0,0 +1,310 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.processor.ConfigurationIndexProcessor;
+import org.reflections.Reflections;
+import org.reflections.scanners.FieldAnnotationsScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The {@link Configuration} fields and {@link ConfigurationModel} types found
+ * on the classpath. The classpath is scanned once, the first time any
+ * {@link ConfigSet} is loaded, and the result is shared by every set
+ * @see ConfigSet#load(boolean)
+ */
+class ClasspathScan {
+
+    /**
+     * Result of the first scan, null until a set has been loaded
+     */
+    private static ClasspathScan scan;
+
+    /**
+     * File the result of a classpath scan is cached in, null to scan on every start
+     */
+    private static volatile File cache;
+
+    /**
+     * Packages the classpath scan is limited to, the root package scans every class
+     */
+    private static volatile List<String> packages = Collections.singletonList("");
+
+    /**
+     * Filter of the jars and class directories the classpath scan reads
+     */
+    private static volatile Predicate<URL> urlFilter = url -> true;
+
+    /**
+     * The 'init' method of each model, empty if the model does not have one
+     */
+    private static final Map<Class<?>, Optional<MethodHandle>> inits = new ConcurrentHashMap<>();
+
+    /**
+     * Maps a field to it's resource name. This allows the loader
+     * to know which file needs to be loaded into each field
+     */
+    private final Map<Field, Configuration> data = new LinkedHashMap<>();
+
+    /**
+     * Setter of each configuration field, created once during the scan
+     * so reassigning fields does not need reflective lookups
+     */
+    private final Map<Field, MethodHandle> setters = new HashMap<>();
+
+    /**
+     * Method to get the result of scanning the classpath, scanning it if
+     * it has not been scanned yet
+     * @param logger to log what is found to
+     * @return the shared result of the scan
+     */
+    static synchronized ClasspathScan get(Logger logger) {
+        if (scan == null)
+            scan = new ClasspathScan(logger);
+        return scan;
+    }
+
+    /**
+     * Method to choose the file the result of a classpath scan is cached in
+     * @param file to cache the scan in, or null to scan on every start
+     */
+    static void chooseCache(File file) {
+        cache = file;
+    }
+
+    /**
+     * Method to limit the classpath scan to some packages and their sub packages
+     * @param basePackages to scan, none to scan every package
+     */
+    static void chooseScope(String... basePackages) {
+        packages = basePackages.length == 0
+                ? Collections.singletonList("")
+                : Collections.unmodifiableList(new ArrayList<>(Arrays.asList(basePackages)));
+    }
+
+    /**
+     * Method to choose which jars and class directories the classpath scan reads
+     * @param filter of the classpath urls, null to read every url
+     */
+    static void chooseUrlFilter(Predicate<URL> filter) {
+        urlFilter = filter == null ? url -> true : filter;
+    }
+
+    /**
+     * Method to find the jars and class directories holding the packages to scan
+     * @param basePackages to scan
+     * @return urls of the classpath to scan, in classpath order
+     */
+    private static Collection<URL> urls(List<String> basePackages) {
+        Predicate<URL> filter = urlFilter;
+        Set<URL> urls = new LinkedHashSet<>();
+        basePackages.forEach(basePackage -> ClasspathHelper.forPackage(basePackage).stream()
+                .filter(filter)
+                .forEach(urls::add));
+        return urls;
+    }
+
+    /**
+     * Method that scans classpath urls for the annotations of types and fields
+     * @param urls of the jars and class directories to scan
+     * @param basePackages to scan, with their sub-packages
+     * @return the result of the scan
+     */
+    static Reflections scan(Collection<URL> urls, List<String> basePackages) {
+        // Only the annotations of types and fields are read, models are not inherited so subtypes are not needed
+        ConfigurationBuilder builder = new ConfigurationBuilder()
+            .addUrls(urls)
+            .setScanners(
+                new TypeAnnotationsScanner(),
+                new FieldAnnotationsScanner()
+            );
+        if (!basePackages.contains("")) {
+            // Ends with a dot, so 'com.foo' does not include 'com.foobar'
+            FilterBuilder filter = new FilterBuilder();
+            basePackages.forEach(basePackage -> filter.includePackage(basePackage + "."));
+            builder.filterInputsBy(filter);
+        }
+
+        Reflections.log = null;
+        return new Reflections(builder);
+    }
+
+    /**
+     * Constructor that reads the compile time index written by {@link ConfigurationIndexProcessor},
+     * or when no index is on the classpath, scans the classpath for
+     * {@link Configuration} and {@link ConfigurationModel} using {@link Reflections}.
+     * The scan is read from the cache instead when the classpath has not changed.
+     * Ensures any {@link Configuration} field type matches a valid {@link ConfigurationModel}
+     * @param logger to log what is found to
+     */
+    private ClasspathScan(Logger logger) {
+        Set<Class<?>> models;
+        Set<Field> reflectSet;
+        ConfigurationIndex index = ConfigurationIndex.read(Thread.currentThread().getContextClassLoader(), logger);
+        if (index != null) {
+            logger.info(" - Using configuration index: {}", ConfigurationIndexProcessor.INDEX_LOCATION);
+            models = index.getModels();
+            reflectSet = index.getFields();
+        } else {
+            List<String> basePackages = packages;
+            Collection<URL> urls = urls(basePackages);
+            File cacheFile = cache;
+            String fingerprint = null;
+            if (cacheFile != null)
+                try {
+                    fingerprint = ScanCache.fingerprint(basePackages, urls);
+                } catch (IOException e) {
+                    logger.error(e);
+                }
+            ConfigurationIndex cached = fingerprint == null ? null
+                    : ScanCache.read(cacheFile, fingerprint, Thread.currentThread().getContextClassLoader(), logger);
+
+            if (cached != null) {
+                logger.info(" - Using cached classpath scan: {}", cacheFile);
+                models = cached.getModels();
+                reflectSet = cached.getFields();
+            } else {
+                Reflections ref = scan(urls, basePackages);
+                // Gets a set of "@ConfigurationModel" annotated classes
+                models = ref.getTypesAnnotatedWith(ConfigurationModel.class, true);
+                // Gets a set of "@Configuration" annotated fields
+                reflectSet = ref.getFieldsAnnotatedWith(Configuration.class);
+                if (fingerprint != null)
+                    ScanCache.write(cacheFile, fingerprint, models, reflectSet, logger);
+            }
+        }
+
+        models.forEach(model -> {
+            logger.debug(" - Found configuration model: {}", model.getName());
+            if (model.isMemberClass() || model.isLocalClass())
+                logger.warn(" - It is not advised to have an '@ConfigurationModel' in another class, this should only be used for testing: {}",
+                        model.getName());
+        });
+
+        // Fields are kept in a stable order so configs are loaded and initiated in the same order every time
+        Set<Class<?>> modelSet = models instanceof HashSet ? models : new HashSet<>(models);
+        reflectSet.stream()
+            .filter(field -> modelSet.contains(modelType(field)))
+            .sorted(Comparator.comparing((Field field) -> field.getDeclaringClass().getName())
+                    .thenComparing(Field::getName))
+            .forEach(field -> {
+                data.putIfAbsent(field, field.getAnnotation(Configuration.class));
+                logger.debug(" - Found configuration field: {} in {}", field.getName(), field.getDeclaringClass().getSimpleName());
+            });
+
+        data.forEach((field, configuration) -> {
+            MethodHandle setter = setter(field, logger);
+            if (setter != null)
+                setters.put(field, setter);
+            initHandle(modelType(field));
+
+            if (configuration.lazy() && field.getType() != LazyConfiguration.class)
+                throw new RuntimeException("'@Configuration' field '" + field.getName()
+                        + "' is lazy so must be a " + LazyConfiguration.class.getSimpleName());
+        });
+    }
+
+    /**
+     * @return every configuration field found, in the order configs are loaded
+     */
+    Map<Field, Configuration> getData() {
+        return Collections.unmodifiableMap(data);
+    }
+
+    /**
+     * @param field annotated with {@link Configuration}
+     * @return setter of the field taking the config instance, or null if the field cannot be assigned
+     */
+    MethodHandle getSetter(Field field) {
+        return setters.get(field);
+    }
+
+    /**
+     * Method to get the model a configuration field is loaded as
+     * @param field annotated with {@link Configuration}
+     * @return the type of the field, or the type argument of a {@link LazyConfiguration} field
+     */
+    static Class<?> modelType(Field field) {
+        if (field.getType() != LazyConfiguration.class)
+            return field.getType();
+
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof Class)
+                return (Class<?>) argument;
+        }
+        return Object.class;
+    }
+
+    /**
+     * Method that creates the setter of a configuration field. Inaccessible
+     * fields are made temporarily accessible to create the setter
+     * @param field to create the setter of
+     * @param logger to report a field that cannot be assigned to
+     * @return setter taking the config instance, or null if the field cannot be assigned
+     */
+    private static MethodHandle setter(Field field, Logger logger) {
+        if (!Modifier.isStatic(field.getModifiers()))
+            throw new RuntimeException("'@Configuration' field '" + field.getName() + "' must be static");
+
+        boolean access = field.isAccessible();
+        try {
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class));
+        } catch (IllegalAccessException e) {
+            logger.error(e);
+            return null;
+        } finally {
+            field.setAccessible(access);
+        }
+    }
+
+    /**
+     * Method that finds the 'init' method of a model, the result is cached
+     * @param model class of the config
+     * @return handle taking the config instance, or empty if the model does not have an 'init' method
+     */
+    static Optional<MethodHandle> initHandle(Class<?> model) {
+        Optional<MethodHandle> cached = inits.get(model);
+        if (cached != null)
+            return cached;
+
+        Method init = null;
+        for (Method method : model.getDeclaredMethods())
+            if (method.getName().equals("init") && method.getParameterCount() == 0)
+                init = method;
+
+        Optional<MethodHandle> handle = Optional.empty();
+        if (init != null) {
+            try {
+                MethodHandle unreflected = MethodHandles.lookup().unreflect(init);
+                handle = Optional.of(Modifier.isStatic(init.getModifiers())
+                        ? MethodHandles.dropArguments(unreflected.asType(MethodType.methodType(void.class)), 0, Object.class)
+                        : unreflected.asType(MethodType.methodType(void.class, Object.class)));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(model.getSimpleName()
+                        + " has an inaccessible 'init' method, try making it public");
+            }
+        }
+        inits.put(model, handle);
+        return handle;
+    }
+}
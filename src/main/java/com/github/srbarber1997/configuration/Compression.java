@@ -0,0 +1,146 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.*;
+
+/**
+ * How a config file is compressed on the disk. Compressed files are smaller,
+ * so are quicker to read from slow storage, at the cost of the time taken to
+ * compress and decompress them. Files are read with the compression they were
+ * written with, found from their first bytes, so the compression of a config
+ * can be changed and its file is compressed the next time it is saved
+ * @see Configuration#compression()
+ * @see Configuration#compressionLevel()
+ */
+public enum Compression {
+    /**
+     * The file is not compressed
+     */
+    NONE,
+    /**
+     * The file is compressed in the gzip format, readable by common tools such as gunzip
+     * @see GZIPOutputStream
+     */
+    GZIP,
+    /**
+     * The file is compressed in the zlib format, slightly smaller than gzip,
+     * after a header that marks the file as compressed
+     * @see DeflaterOutputStream
+     */
+    DEFLATE;
+
+    /**
+     * Size of the buffers used to compress and decompress
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Bytes that a {@link #DEFLATE} file starts with. The zlib format has no
+     * magic number, its two byte header can be the start of a plain file
+     */
+    private static final byte[] DEFLATE_HEADER = { 0, 'C', 'Z', 'L', 1 };
+
+    /**
+     * Method that writes content with this compression. The stream is not closed
+     * @param out stream of the file
+     * @param level of compression, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param content that writes the uncompressed bytes
+     * @throws Exception if the content could not be written
+     */
+    void compress(OutputStream out, int level, AtomicFileWriter.Content content) throws Exception {
+        if (this == NONE) {
+            content.write(out);
+            return;
+        }
+
+        // The deflater is ended rather than the stream closed, the file stream is left open
+        if (this == GZIP) {
+            LevelGzipOutputStream compressed = new LevelGzipOutputStream(out, level);
+            try {
+                content.write(compressed);
+                compressed.finish();
+            } finally {
+                compressed.end();
+            }
+            return;
+        }
+
+        out.write(DEFLATE_HEADER);
+        Deflater deflater = new Deflater(level);
+        try {
+            DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            content.write(compressed);
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Method that reads a file with this compression
+     * @param in stream of the file, positioned at its start
+     * @return stream of the uncompressed bytes, which supports mark
+     * @throws IOException if the file could not be read
+     */
+    InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE));
+            case DEFLATE:
+                ByteStreams.skipFully(in, DEFLATE_HEADER.length);
+                return new BufferedInputStream(new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        inf.end();
+                    }
+                });
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * Method that finds the compression of a file from its first bytes, the gzip
+     * magic number or the deflate header. The stream is left at the start
+     * @param in stream of the file, must support mark
+     * @return the compression of the file
+     * @throws IOException if the file could not be read
+     */
+    static Compression detect(InputStream in) throws IOException {
+        byte[] start = new byte[DEFLATE_HEADER.length];
+        in.mark(start.length);
+        int read = ByteStreams.read(in, start, 0, start.length);
+        in.reset();
+        if (read >= 2 && start[0] == (byte) 0x1f && start[1] == (byte) 0x8b)
+            return GZIP;
+        if (read == start.length && Arrays.equals(start, DEFLATE_HEADER))
+            return DEFLATE;
+        return NONE;
+    }
+
+    /**
+     * Gzip stream of a chosen level. The header holds no name and no
+     * modification time, so equal configs compress to equal bytes
+     */
+    private static class LevelGzipOutputStream extends GZIPOutputStream {
+
+        LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+
+        /**
+         * Method that releases the deflater, without closing the file stream
+         */
+        void end() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.srbarber1997.configuration;
+
+/**
+ * Listener that is told when a config has changed on a reload, so anything
+ * built from the config can be updated rather than built again. It is not
+ * told about reloads that leave every field of the config the same.
+ * Called on the thread that reloaded, after the fields have been assigned.
+ * Exceptions thrown by a listener are logged and otherwise ignored
+ * @param <T> type of the config's model
+ * @see ConfigLoader#addChangeListener(String, Class, ConfigChangeListener)
+ */
+@FunctionalInterface
+public interface ConfigChangeListener<T> {
+
+    /**
+     * Called when a config has been reloaded with different values
+     * @param previous instance of the config, before the reload
+     * @param current instance of the config, after the reload
+     * @param diff the fields that differ between the instances
+     */
+    void changed(T previous, T current, ConfigDiff diff);
+}
@@ -0,0 +1,129 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields that differ between two instances of a config, found by comparing
+ * their json trees. Each changed field is given as a path from the config, such
+ * as {@code "server.port"} for a field of a nested object or {@code "hosts[2]"}
+ * for an element of an array. An array that changes length is a single change
+ * of the whole array, a config that is replaced by null is a change of the root path {@code ""}
+ * @see ConfigChangeListener
+ */
+public final class ConfigDiff {
+
+    private final Set<String> paths;
+
+    private ConfigDiff(Set<String> paths) {
+        this.paths = Collections.unmodifiableSet(paths);
+    }
+
+    /**
+     * Method that compares two instances of a config as they are serialised
+     * by the cached gson instance of their model
+     * @param previous instance of the config, may be null
+     * @param current instance of the config, may be null
+     * @return the fields that differ
+     * @see GsonCache#adapter(Class)
+     */
+    static ConfigDiff between(Object previous, Object current) {
+        return between(tree(previous), tree(current));
+    }
+
+    /**
+     * Method that compares two json trees
+     * @param previous json of the config
+     * @param current json of the config
+     * @return the fields that differ
+     */
+    static ConfigDiff between(JsonElement previous, JsonElement current) {
+        Set<String> paths = new LinkedHashSet<>();
+        compare("", previous, current, paths);
+        return new ConfigDiff(paths);
+    }
+
+    private static <T> JsonElement tree(T config) {
+        if (config == null)
+            return JsonNull.INSTANCE;
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) config.getClass();
+        return GsonCache.adapter(type).toJsonTree(config);
+    }
+
+    private static void compare(String path, JsonElement previous, JsonElement current, Set<String> paths) {
+        if (previous.equals(current))
+            return;
+
+        if (previous.isJsonObject() && current.isJsonObject()) {
+            JsonObject before = previous.getAsJsonObject();
+            JsonObject after = current.getAsJsonObject();
+            for (Map.Entry<String, JsonElement> field : before.entrySet())
+                compare(child(path, field.getKey()), field.getValue(),
+                        after.has(field.getKey()) ? after.get(field.getKey()) : JsonNull.INSTANCE, paths);
+            for (Map.Entry<String, JsonElement> field : after.entrySet())
+                if (!before.has(field.getKey()))
+                    compare(child(path, field.getKey()), JsonNull.INSTANCE, field.getValue(), paths);
+        } else if (previous.isJsonArray() && current.isJsonArray()
+                && previous.getAsJsonArray().size() == current.getAsJsonArray().size()) {
+            JsonArray before = previous.getAsJsonArray();
+            JsonArray after = current.getAsJsonArray();
+            for (int i = 0; i < before.size(); i++)
+                compare(path + "[" + i + "]", before.get(i), after.get(i), paths);
+        } else
+            paths.add(path);
+    }
+
+    private static String child(String path, String field) {
+        return path.isEmpty() ? field : path + "." + field;
+    }
+
+    /**
+     * Method to check if any field has changed
+     * @return true if the instances are the same
+     */
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    /**
+     * Method to get the paths of the changed fields
+     * @return unmodifiable set of the changed paths, in the order of the fields
+     */
+    public Set<String> getChangedPaths() {
+        return paths;
+    }
+
+    /**
+     * Method to check if a field, or anything within it, has changed
+     * @param path of the field, such as {@code "server"} or {@code "server.port"}
+     * @return true if the field, a field within it or the object holding it has changed
+     */
+    public boolean hasChanged(String path) {
+        for (String changed : paths)
+            if (within(changed, path) || within(path, changed))
+                return true;
+        return false;
+    }
+
+    /**
+     * @return true if the path is the parent path or beneath it
+     */
+    private static boolean within(String path, String parent) {
+        return parent.isEmpty() || path.equals(parent)
+                || path.startsWith(parent) && (path.charAt(parent.length()) == '.' || path.charAt(parent.length()) == '[');
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigDiff" + paths;
+    }
+}
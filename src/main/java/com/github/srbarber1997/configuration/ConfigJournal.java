@@ -0,0 +1,476 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.common.io.Files;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Stores every config of a set in a single file that is only appended to.
+ * A saved config is appended as a snapshot record holding its json, or as a
+ * delta record holding only the members that changed since its last record,
+ * in the form of a json merge patch. The journal is replayed on the first read,
+ * keeping the latest json of each config. Once the journal grows past a
+ * threshold it is compacted on a background thread, replaced by a snapshot
+ * of each config. A record torn by a crash is dropped on replay, each
+ * record is checked against its crc
+ * @see ConfigLoader#useJournal(boolean)
+ */
+class ConfigJournal implements Closeable {
+
+    /**
+     * Name of the journal file in the config directory
+     */
+    static final String FILE_NAME = "configs.journal";
+
+    /**
+     * Suffix of the file a compacted journal is written to, before it is renamed over the journal
+     */
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    private static final int MAGIC = 0x434A524E;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 5;
+
+    private static final byte SNAPSHOT = 1;
+    private static final byte DELTA = 2;
+    /**
+     * Flag of a record whose json is scrambled, as its config is not readable
+     */
+    private static final byte SCRAMBLED = 0x10;
+
+    private final File file;
+    private final long threshold;
+    private final Logger logger;
+    private final ExecutorService compactor;
+
+    /**
+     * Latest json of each config, null until the journal is replayed
+     */
+    private Map<String, State> states;
+    private FileChannel channel;
+    /**
+     * Length of the journal up to the end of its last complete record
+     */
+    private long length;
+    /**
+     * Length of the journal when it was last compacted
+     */
+    private long compactedLength;
+    private boolean compacting;
+    /**
+     * Incremented each time the journal is read again or replaced, so a
+     * compaction does not replace a journal that changed under it
+     */
+    private long generation;
+
+    /**
+     * @param file of the journal
+     * @param threshold length in bytes the journal may grow to before it is compacted
+     * @param logger to report failed compactions to
+     */
+    ConfigJournal(File file, long threshold, Logger logger) {
+        this.file = file;
+        this.threshold = threshold;
+        this.logger = logger;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Config Loader Journal Compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Method to get the latest json of a config
+     * @param name of the config
+     * @return the json, or null if the journal holds no record of the config
+     * @throws IOException if the journal could not be read
+     */
+    synchronized String read(String name) throws IOException {
+        State state = replay().get(name);
+        return state == null ? null : state.text();
+    }
+
+    /**
+     * Method that appends a record of a config, unless its json matches
+     * its latest record. A delta is appended when it is shorter than a snapshot
+     * @param name of the config
+     * @param json of the config
+     * @param scrambled true to scramble the json in the journal
+     * @param durability how far the record is forced to the disk
+     * @return bytes appended, 0 if the config is unchanged
+     * @throws IOException if the record could not be appended
+     */
+    synchronized int append(String name, String json, boolean scrambled, Durability durability) throws IOException {
+        State previous = replay().get(name);
+        if (previous != null && previous.text().equals(json))
+            return 0;
+
+        State current = new State(json, scrambled);
+        byte kind = SNAPSHOT;
+        String payload = json;
+        if (previous != null && previous.tree() != null && current.tree() != null) {
+            JsonObject delta = diff(previous.tree(), current.tree());
+            if (delta != null && delta.entrySet().isEmpty())
+                return 0;
+            if (delta != null && delta.toString().length() < json.length()) {
+                kind = DELTA;
+                payload = delta.toString();
+            }
+        }
+
+        byte[] record = record(kind, name, payload, scrambled);
+        FileChannel channel = channel();
+        writeFully(channel, ByteBuffer.wrap(record), length);
+        // The directory entry is forced once, when the journal is created or replaced
+        if (durability == Durability.FSYNC_FILE)
+            channel.force(false);
+        else if (durability == Durability.FSYNC_DIRECTORY)
+            channel.force(true);
+        length += record.length;
+        states.put(name, current);
+
+        if (!compacting && length > threshold && length > 2 * compactedLength) {
+            compacting = true;
+            compactor.execute(this::compact);
+        }
+        return record.length;
+    }
+
+    /**
+     * Method that drops the configs read from the journal, so it is replayed
+     * again when next used, seeing any records appended outside of the set
+     * @throws IOException if the journal could not be closed
+     */
+    synchronized void refresh() throws IOException {
+        closeChannel();
+        states = null;
+        generation++;
+    }
+
+    /**
+     * Method to get the length of the journal, up to the end of its last complete record
+     * @return length in bytes
+     * @throws IOException if the journal could not be read
+     */
+    synchronized long length() throws IOException {
+        replay();
+        return length;
+    }
+
+    /**
+     * Method that replaces the journal with a snapshot of each config. The
+     * snapshot is written to a file next to the journal without holding the
+     * lock, so configs can be saved meanwhile. The records appended meanwhile
+     * are then copied after the snapshot and the file renamed over the journal
+     */
+    void compact() {
+        File compacted = new File(file.getPath() + COMPACT_SUFFIX);
+        try {
+            Map<String, State> snapshot = new LinkedHashMap<>();
+            long snapshotLength;
+            long snapshotGeneration;
+            synchronized (this) {
+                replay().forEach((name, state) -> snapshot.put(name, new State(state.text(), state.scrambled)));
+                snapshotLength = length;
+                snapshotGeneration = generation;
+            }
+
+            long written;
+            try (FileChannel out = FileChannel.open(compacted.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_LENGTH);
+                DataOutputStream data = new DataOutputStream(header);
+                data.writeInt(MAGIC);
+                data.writeByte(VERSION);
+                written = writeFully(out, ByteBuffer.wrap(header.toByteArray()), 0);
+                for (Map.Entry<String, State> entry : snapshot.entrySet()) {
+                    byte[] record = record(SNAPSHOT, entry.getKey(), entry.getValue().text, entry.getValue().scrambled);
+                    written = writeFully(out, ByteBuffer.wrap(record), written);
+                }
+                out.force(true);
+            }
+
+            synchronized (this) {
+                // The journal was read again, or compacted, while the snapshot was written
+                if (generation != snapshotGeneration)
+                    return;
+
+                long compactedLength = written;
+                try (FileChannel out = FileChannel.open(compacted.toPath(), StandardOpenOption.WRITE);
+                     FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    for (long copied = 0; copied < length - snapshotLength; )
+                        copied += out.transferFrom(in.position(snapshotLength + copied), written + copied,
+                                length - snapshotLength - copied);
+                    written += length - snapshotLength;
+                    out.force(true);
+                }
+                closeChannel();
+                AtomicFileWriter.move(compacted.toPath(), file.toPath());
+                AtomicFileWriter.forceDirectory(file.toPath().toAbsolutePath().getParent());
+                generation++;
+                length = written;
+                this.compactedLength = compactedLength;
+            }
+        } catch (IOException e) {
+            logger.error(e);
+        } finally {
+            compacted.delete();
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdown();
+        synchronized (this) {
+            try {
+                closeChannel();
+            } catch (IOException e) {
+                logger.error(e);
+            }
+        }
+    }
+
+    /**
+     * Method that reads the journal, the first time it is used
+     * @return the latest json of each config
+     * @throws IOException if the journal could not be read
+     */
+    private Map<String, State> replay() throws IOException {
+        if (states != null)
+            return states;
+
+        Map<String, State> replayed = new HashMap<>();
+        length = 0;
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readByte() != VERSION)
+                    throw new IOException("Not a config journal: " + file);
+                length = HEADER_LENGTH;
+                long fileLength = file.length();
+                for (int read; (read = readRecord(in, replayed, fileLength - length)) > 0; )
+                    length += read;
+            } catch (EOFException ignored) {
+                // A record torn by a crash, the journal is cut back to the last complete record
+            }
+        }
+        states = replayed;
+        compactedLength = length;
+        return states;
+    }
+
+    /**
+     * Method that reads a record and applies it to the configs
+     * @param remaining bytes of the journal from the start of the record
+     * @return length of the record, 0 at the end of the journal
+     * @throws EOFException if the record is torn
+     */
+    private int readRecord(DataInputStream in, Map<String, State> replayed, long remaining) throws IOException {
+        int bodyLength;
+        try {
+            bodyLength = in.readInt();
+        } catch (EOFException e) {
+            return 0;
+        }
+        // A length longer than the rest of the journal is corrupt, it is not allocated
+        if (bodyLength <= 0 || bodyLength > remaining - 8)
+            throw new EOFException();
+        byte[] body = new byte[bodyLength];
+        in.readFully(body);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        if (in.readInt() != (int) crc.getValue())
+            throw new EOFException();
+
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+        byte kind = record.readByte();
+        String name = record.readUTF();
+        byte[] payload = new byte[record.available()];
+        record.readFully(payload);
+
+        boolean scrambled = (kind & SCRAMBLED) != 0;
+        String json = new String(payload, StandardCharsets.UTF_8);
+        if (scrambled)
+            json = ConfigLoader.service.unscrambleCharacters(json);
+
+        if ((kind & ~SCRAMBLED) == DELTA) {
+            State state = replayed.get(name);
+            if (state == null || state.tree() == null)
+                throw new IOException("Delta of config '" + name + "' without a snapshot in: " + file);
+            try {
+                apply(state.tree(), new JsonParser().parse(json).getAsJsonObject());
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new IOException("Invalid delta of config '" + name + "' in: " + file, e);
+            }
+            state.text = null;
+            state.scrambled = scrambled;
+        } else {
+            replayed.put(name, new State(json, scrambled));
+        }
+        return 8 + bodyLength;
+    }
+
+    private static byte[] record(byte kind, String name, String json, boolean scrambled) throws IOException {
+        if (scrambled) {
+            kind |= SCRAMBLED;
+            json = ConfigLoader.service.scrambleCharacters(json);
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(body);
+        data.writeByte(kind);
+        data.writeUTF(name);
+        data.write(json.getBytes(StandardCharsets.UTF_8));
+        data.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+        ByteArrayOutputStream record = new ByteArrayOutputStream(body.size() + 8);
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeInt(body.size());
+        body.writeTo(out);
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return record.toByteArray();
+    }
+
+    /**
+     * Method to get the channel records are appended with, opening it if needed.
+     * A journal that is new, or not a journal, is started again with a header
+     */
+    private FileChannel channel() throws IOException {
+        if (channel != null)
+            return channel;
+
+        Files.createParentDirs(file);
+        boolean created = !file.exists();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (created)
+            AtomicFileWriter.forceDirectory(file.toPath().toAbsolutePath().getParent());
+        if (length < HEADER_LENGTH) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).put(VERSION);
+            header.flip();
+            writeFully(channel, header, 0);
+            length = compactedLength = HEADER_LENGTH;
+        }
+        // Drop a torn record left after the last complete one
+        channel.truncate(length);
+        return channel;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * @return the position after the bytes written
+     */
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+        return position;
+    }
+
+    /**
+     * Method that finds the json merge patch that turns one object into another
+     * @return the patch, empty if they are equal, or null if the change
+     * cannot be written as a patch, as it sets a member to null
+     */
+    private static JsonObject diff(JsonObject previous, JsonObject current) {
+        JsonObject patch = new JsonObject();
+        for (Map.Entry<String, JsonElement> entry : previous.entrySet())
+            if (!current.has(entry.getKey()))
+                patch.add(entry.getKey(), JsonNull.INSTANCE);
+
+        for (Map.Entry<String, JsonElement> entry : current.entrySet()) {
+            JsonElement before = previous.get(entry.getKey());
+            JsonElement after = entry.getValue();
+            if (after.equals(before))
+                continue;
+            if (after.isJsonNull())
+                return null;
+            if (before != null && before.isJsonObject() && after.isJsonObject()) {
+                JsonObject nested = diff(before.getAsJsonObject(), after.getAsJsonObject());
+                if (nested == null)
+                    return null;
+                patch.add(entry.getKey(), nested);
+            } else {
+                patch.add(entry.getKey(), after);
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * Method that applies a json merge patch to an object
+     */
+    private static void apply(JsonObject target, JsonObject patch) {
+        for (Map.Entry<String, JsonElement> entry : patch.entrySet()) {
+            JsonElement value = entry.getValue();
+            JsonElement existing = target.get(entry.getKey());
+            if (value.isJsonNull())
+                target.remove(entry.getKey());
+            else if (value.isJsonObject() && existing != null && existing.isJsonObject())
+                apply(existing.getAsJsonObject(), value.getAsJsonObject());
+            else
+                target.add(entry.getKey(), value);
+        }
+    }
+
+    /**
+     * Latest json of a config, as text and, if it is an object, as a tree.
+     * Each is found from the other when first used
+     */
+    private static class State {
+        private String text;
+        private JsonObject tree;
+        private boolean parsed;
+        private boolean scrambled;
+
+        State(String text, boolean scrambled) {
+            this.text = text;
+            this.scrambled = scrambled;
+        }
+
+        String text() {
+            if (text == null)
+                text = tree.toString();
+            return text;
+        }
+
+        /**
+         * @return the json as a tree, or null if it is not an object
+         */
+        JsonObject tree() {
+            if (!parsed) {
+                parsed = true;
+                try {
+                    JsonElement json = new JsonParser().parse(text);
+                    tree = json.isJsonObject() ? json.getAsJsonObject() : null;
+                } catch (JsonParseException e) {
+                    tree = null;
+                }
+            }
+            return tree;
+        }
+    }
+}
@@ -1,33 +1,35 @@
 package com.github.srbarber1997.configuration;
 
-import com.github.srbarber1997.configuration.serialise.SelfDeserializable;
-import com.github.srbarber1997.configuration.serialise.SelfSerializable;
+import com.github.srbarber1997.configuration.codec.BinaryCodec;
+import com.github.srbarber1997.configuration.codec.ConfigurationCodec;
+import com.github.srbarber1997.configuration.codec.JsonCodec;
+import com.github.srbarber1997.configuration.metrics.LoaderListener;
+import com.github.srbarber1997.configuration.metrics.LoaderStatistics;
 import com.github.srbarber1997.configuration.util.Scrambler;
 import com.google.common.annotations.Beta;
-import com.google.common.io.Files;
-import com.google.gson.Gson;
-import org.reflections.Reflections;
-import org.reflections.scanners.FieldAnnotationsScanner;
-import org.reflections.scanners.MethodAnnotationsScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
-import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
-
-import java.io.*;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Class that is used to load configs into a project. Allows for saving
  * variable between each runtime. Persists data after the jre exits. Useful
  * for preferences or user settings. Similar to a simple database,
  * much easier to implement and with no relationships.
+ * The loader is the default {@link ConfigSet}, the only set that assigns the
+ * {@link Configuration} fields. Other sets can be loaded alongside it
  * @see Configuration
  * @see ConfigurationModel
+ * @see ConfigSet
  * @see ConfigLoader#load()
  * @see ConfigLoader#reload()
  * @see ConfigLoader#save()
@@ -36,35 +38,40 @@ import java.util.Set;
 public class ConfigLoader {
 
     /**
-     * Boolean to mark if the config loader has been loaded
+     * Configuration service used to scramble a json string
      */
-    private static boolean loaded = false;
+    static final Scrambler service = new Scrambler("config loader");
 
     /**
-     * Configuration service used to scramble a json string
+     * Codec used for default resources, which are always readable json
      */
-    private static final Scrambler service = new Scrambler("config loader");
+    static final JsonCodec jsonCodec = new JsonCodec(service);
 
     /**
-     * Maps a field to it's resource name. This allows the loader
-     * to know which file needs to be loaded into each field
+     * Maps each format to the codec used to read and write its config files,
+     * shared by every {@link ConfigSet}
      */
-    private static Map<Field, Configuration> data;
+    private static final Map<Format, ConfigurationCodec> codecs = new EnumMap<>(Format.class);
+
+    static {
+        codecs.put(Format.JSON, jsonCodec);
+        codecs.put(Format.BINARY, new BinaryCodec());
+    }
 
     /**
-     * Maps the name of a resource to the stored instances of the object.
-     * Each {@link Configuration#name()} has a corresponding object
-     * Where config1.name().equals(config2.name()) you can assume
-     * their objects are the same instance
+     * The default set, loaded into the {@link Configuration} fields
      */
-    private static Map<Configuration, Object> configs;
+    private static final ConfigSet configSet = new ConfigSet(new File("configs/"), true);
 
     /**
-     * Directory where the config files are stored in json format
+     * Statistics registered as an MBean, null when not using jmx
      */
-    private static File directory = new File("configs/");
+    private static LoaderStatistics statistics;
 
-    private static Logger logger = new Logger();
+    /**
+     * Name the statistics MBean is registered with
+     */
+    private static final String MBEAN_NAME = "com.github.srbarber1997.configuration:type=ConfigLoader";
 
     /**
      * Public method used to load the configs. The method
@@ -72,29 +79,11 @@ public class ConfigLoader {
      * Adds a shutdown hook to save all configs when the jre
      * exits. This prevents lost of data, however is not 100%
      * guaranteed {@link Runtime#addShutdownHook(Thread)}
-     * @see ConfigLoader#setup()
-     * @see ConfigLoader#configure()
-     * @see ConfigLoader#distribute()
+     * @param log false to log nothing, otherwise the loader logs through SLF4J
+     * @see ConfigSet#load(boolean)
      */
     public static void load(boolean log) {
-        if (hasLoaded())
-            return;
-
-        logger.setLog(log);
-        logger.log("---------------------------------");
-        logger.log(" Loading configurations...       ");
-        logger.log("---------------------------------");
-        setup();
-        configure();
-        distribute();
-        logger.log("---------------------------------");
-        logger.log(" Finished loading configurations ");
-        logger.log("---------------------------------");
-
-        loaded = true;
-        Runtime.getRuntime().addShutdownHook(
-            new Thread(ConfigLoader::save, "Config Loader Shutdown Hook")
-        );
+        configSet.load(log);
     }
 
     public static void load() {
@@ -109,269 +98,153 @@ public class ConfigLoader {
      * Unsaved changes will be overwritten
      */
     public static void reload() {
-        if (!hasLoaded())
-            throw new RuntimeException("Cannot reload configurations before you have loaded it first");
+        configSet.reload();
+    }
+
+    /**
+     * Method to start watching the config directory for changes made outside
+     * of the loader, such as a user editing a config file. Only the configs
+     * whose files have changed are reloaded and reassigned. Events are coalesced
+     * until the directory has been quiet for 200 milliseconds
+     * @see ConfigLoader#startWatching(long, TimeUnit)
+     * @see ConfigLoader#stopWatching()
+     */
+    @Beta
+    public static void startWatching() {
+        configSet.startWatching();
+    }
+
+    /**
+     * Method to start watching the config directory for changes made outside
+     * of the loader, such as a user editing a config file. Only the configs
+     * whose files have changed are reloaded and reassigned
+     * @param debounce time the directory must be quiet before changes are reloaded
+     * @param unit of the debounce time
+     * @see ConfigLoader#stopWatching()
+     */
+    @Beta
+    public static void startWatching(long debounce, TimeUnit unit) {
+        configSet.startWatching(debounce, unit);
+    }
 
-        logger.log("-----------------------------------");
-        logger.log(" Reloading configurations...       ");
-        logger.log("-----------------------------------");
-        configure();
-        distribute();
-        logger.log("-----------------------------------");
-        logger.log(" Finished reloading configurations ");
-        logger.log("-----------------------------------");
+    /**
+     * Method to stop watching the config directory
+     * @see ConfigLoader#startWatching()
+     */
+    @Beta
+    public static void stopWatching() {
+        configSet.stopWatching();
     }
 
     /**
      * Public method to save the configs to the hard disk. This should be
      * called when changes have been made. The shutdown hook should work
-     * to save configs automatically but may not work occasionally
+     * to save configs automatically but may not work occasionally.
+     * Configs that have not changed since they were last loaded or saved
+     * are not written again
      * @see ConfigLoader#load()
+     * @see ConfigLoader#save(String)
      */
     public static void save() {
-        configs.forEach((configuration, o) -> {
-            try {
-                BufferedWriter buff = new BufferedWriter(new FileWriter(
-                        directory.toString() + "/" + configuration.name() + ".config"
-                ));
-                buff.write(applyOutboundProperties(configuration, serialize(o)));
-                buff.flush();
-                buff.close();
-            } catch (Exception e) {
-                logger.error(e);
-            }
-        });
-    }
-
-    /**
-     * --- Setup Phase ---
-     * Method that sets up the loader to load in config. The method
-     * scans the classpath for {@link Configuration} and {@link ConfigurationModel}
-     * using {@link Reflections}. The method ensures any
-     * {@link Configuration} field type matches a valid {@link ConfigurationModel}
-     * and stores required resource names from {@link Configuration#name()}
-     */
-    private static void setup() {
-        logger.log("Setting up...");
-        data = new HashMap<>();
-
-        Reflections.log = null;
-        Reflections ref = new Reflections(new ConfigurationBuilder()
-            .addUrls(ClasspathHelper.forPackage(""))
-            .addScanners(
-                new TypeAnnotationsScanner(),
-                new FieldAnnotationsScanner(),
-                new MethodAnnotationsScanner(),
-                new SubTypesScanner()
-            )
-        );
-
-        // Gets a set of "@ConfigurationModel" annotated classes
-        Set<Class<?>> models = ref.getTypesAnnotatedWith(ConfigurationModel.class);
-        models.forEach(model -> {
-            logger.log(" - Found configuration model: " + model.getName());
-            if (model.isMemberClass() || model.isLocalClass())
-                logger.log(" - (WARN) It is not advised to have an '@ConfigurationModel' in another class, this should only be used for testing");
-        });
-
-        // Gets a set of "@Configuration" annotated fields
-        Set<Field> reflectSet = ref.getFieldsAnnotatedWith(Configuration.class);
-        reflectSet.stream()
-            .filter(field -> models.stream().anyMatch(aClass -> aClass.equals(field.getType())))
-            .forEach(field -> {
-                data.putIfAbsent(field, field.getAnnotation(Configuration.class));
-                logger.log(" - Found configuration field: " + field.getName()
-                        + " in " + field.getDeclaringClass().getSimpleName());
-            });
-    }
-
-    /**
-     * --- Configure Phase ---
-     * Method that configures the configs that have been found. The method
-     * decides whether to load an existing config or generate a new one.
-     *
-     * When loading a model, the order is (May be different if you
-     * are using a custom serializer, {@link SelfSerializable}):
-     * 1. Creates instance using the no-args constructor
-     * 2. Sets the fields to the default values either set in the constructor or as
-     * defined in the {@link ConfigurationModel#defaultResource()}
-     * 3. (Existing only) Overwrites default values with those from the existing model
-     * 4. Calls 'init' method of the method if one exists
-     */
-    private static void configure() {
-        logger.log("Configuring...");
-        configs = new HashMap<>();
-
-        if (!directory.exists())
-            if (directory.mkdirs())
-                logger.log(" - Generated config directory, found at: " + directory.getAbsolutePath());
-            else
-                logger.log(" - Unable to generate a config directory at: " + directory.getAbsolutePath());
-        else
-            logger.log(" - Using config directory, found at: " + directory.getAbsolutePath());
-
-        data.forEach((field, configuration) -> {
-            File resource = new File(directory.getPath() + "/" + configuration.name() + ".config");
-
-            // Find or create resource files
-            try {
-                if (!resource.exists()) {
-                    Files.createParentDirs(resource);
-                    if (resource.createNewFile())
-                        logger.log(" - Generated configuration file: " + configuration.name() + ".config");
-                }
-            } catch (IOException e) {
-                logger.error(e);
-            }
+        configSet.save();
+    }
 
-            // Read data from resources, if blank a default instance is generated
-            if (!configs.containsKey(configuration)) {
-                try {
-                    BufferedReader buff = new BufferedReader(new FileReader(resource));
-                    String json = buff.lines().reduce(String::concat).orElse(null);
-                    buff.close();
-                    if (json == null) {
-                        String defaultResource = field.getType().getAnnotation(ConfigurationModel.class).defaultResource();
-                        if (defaultResource.equals(""))
-                            configs.putIfAbsent(
-                                    configuration,
-                                    createInstance(field.getType())
-                            );
-                        else
-                            configs.putIfAbsent(
-                                    configuration,
-                                    loadDefault(defaultResource, field.getType())
-                            );
-                    } else
-                        configs.putIfAbsent(
-                                configuration,
-                                loadInstance(applyInboundProperties(configuration, json), field.getType())
-                        );
-                } catch (IOException e) {
-                    logger.error(e);
-                }
-            }
-        });
-
-        configs.forEach((configuration, o) -> {
-            if (loaded && !o.getClass().getAnnotation(ConfigurationModel.class).initOnReload())
-                return;
-            // Run 'init' method if it exists
-            try {
-                configs.get(configuration).getClass()
-                        .getDeclaredMethod("init")
-                        .invoke(configs.get(configuration));
-                logger.log(" - Initiated resource: " + o.getClass().getName());
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(o.getClass().getSimpleName()
-                        + " has an inaccessible 'init' method, try making it public");
-            } catch (InvocationTargetException e) {
-                e.getTargetException().printStackTrace();
-                throw new RuntimeException("The 'init' method of " + o.getClass().getSimpleName() + " threw an exception:\n"
-                        + e.getTargetException().getClass().getName() + ": "
-                        + e.getTargetException().getMessage());
-            } catch (NoSuchMethodException ignored) { }
-        });
-    }
-
-    /**
-     * --- Distribute Phase ---
-     * Method that distributes the loaded/generated configs to their relevant
-     * fields. Inaccessible fields will be made temporarily accessible to assign
-     * the config instance. The initial accessibility will be returned to how it
-     * was afterwards
-     */
-    private static void distribute() {
-        logger.log("Distributing...");
-        data.forEach((field, configuration) -> {
-            try {
-                boolean access = field.isAccessible();
-                field.setAccessible(true);
-                field.set(null, configs.get(configuration));
-                field.setAccessible(access);
-                logger.log(
-                        " - Assigned resource called '" + configuration.name() + "' to field '" +
-                        field.getName() + "' in '" + field.getDeclaringClass().getName()
-                );
-            } catch (NullPointerException e) {
-                throw new RuntimeException("'@Configuration' field '" + field.getName() + "' must be static");
-            } catch (IllegalAccessException e2) {
-                logger.error(e2);
-            }
-        });
+    /**
+     * Public method to save a single config to the hard disk. The config
+     * is not written if it has not changed since it was last loaded or saved
+     * @param name of the config to save, as given by {@link Configuration#name()}
+     * @see ConfigLoader#save()
+     */
+    public static void save(String name) {
+        configSet.save(name);
     }
 
     /**
-     * Method that will create an instance of an object based of a class
-     * @param objClass to create an object from
-     * @param <T> object type to create
-     * @return object based of the class given
+     * Method to get a consistent view of the configs. The static fields are
+     * assigned one at a time on a reload, so a thread reading two of them may
+     * see one from before the reload and one from after. Configs read from the
+     * same snapshot are always from the same load or reload
+     * @return the latest snapshot, empty before the configs have been loaded
+     * @see ConfigSnapshot#getGeneration()
      */
-    private static <T> T createInstance(Class<T> objClass) {
-        try {
-            T t = objClass.newInstance();
-            if (t != null)
-                logger.log(" - Generated resource: " + objClass.getName());
-            return t;
-        } catch (InstantiationException e) {
-            throw new RuntimeException("Cannot create new instance of configuration model:\n\t'" +
-                    objClass.getName() + "',\n\tbecause of: '" + e.getClass().getName() + "'"
-            );
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("Cannot create new instance of configuration model '" +
-                    objClass.getSimpleName() + "', because:\n" + e.getMessage()
-            );
-        }
+    @Beta
+    public static ConfigSnapshot snapshot() {
+        return configSet.snapshot();
     }
 
     /**
-     * Method that will load an instance of an object
-     * from the json string
-     * @param json string representation of the object
-     * @param objClass class to be created from the json string
-     * @param <T> object loaded from the json string
-     * @return object based of the json string
+     * Method to add a listener told when a config changes on a reload, by
+     * {@link ConfigLoader#reload()} or by watching for changes. The listener
+     * is given the instances from before and after the reload and the fields
+     * that differ, and is not told about reloads that leave the config the same
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @param type of the config's model
+     * @param listener to add
+     * @param <T> type of the config's model
+     * @see ConfigDiff
      */
-    private static <T> T loadInstance(String json, Class<T> objClass) {
-        T obj = null;
-        try {
-            obj = deserialize(json, objClass);
-        } catch (Exception ignored) { }
-        if (obj == null)
-            switch (objClass.getAnnotation(ConfigurationModel.class).onError()) {
-                case CREATE_DEFAULT_CONFIGURATION:
-                    return loadDefault(objClass.getAnnotation(ConfigurationModel.class).defaultResource(), objClass);
-                case THROW_EXCEPTION:
-                    throw new RuntimeException("Could not load instance of '" + objClass.getName() + "', found: " + json);
-            }
+    @Beta
+    public static <T> void addChangeListener(String name, Class<T> type, ConfigChangeListener<? super T> listener) {
+        configSet.addChangeListener(name, type, listener);
+    }
 
-        logger.log(" - Loaded resource: " + objClass.getName());
-        return obj;
-    }
-
-    private static <T> T loadDefault(String resource, Class<T> objClass) {
-        T obj = null;
-        if (!resource.equals("")) {
-            try {
-                InputStream resourceStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
-                if (resourceStream != null) {
-                    BufferedReader buff = new BufferedReader(new InputStreamReader(resourceStream));
-                    String json = buff.lines().reduce(String::concat).orElse("");
-                    if (!json.equals(""))
-                        obj = deserialize(json, objClass);
-                }
-            } catch (Exception ignored) { }
-        }
-        if (obj == null)
-            switch (objClass.getAnnotation(ConfigurationModel.class).onError()) {
-                case CREATE_DEFAULT_CONFIGURATION:
-                    return createInstance(objClass);
-                case THROW_EXCEPTION:
-                    throw new RuntimeException("Could not load default instance of '" + objClass.getName() + "', at resource: " + resource);
-            }
+    /**
+     * Method to remove a listener of a config
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @param listener to remove
+     * @see ConfigLoader#addChangeListener(String, Class, ConfigChangeListener)
+     */
+    @Beta
+    public static void removeChangeListener(String name, ConfigChangeListener<?> listener) {
+        configSet.removeChangeListener(name, listener);
+    }
 
-        logger.log(" - Loaded default resource: " + objClass.getName());
-        return obj;
+    /**
+     * Method to start saving modified configs on a background thread, keeping
+     * disk writes off the threads that change the configs. Configs marked with
+     * {@link ConfigLoader#markModified(String)} are collected and saved together
+     * on the interval, a config marked many times between saves is saved once.
+     * Once the shutdown hook runs it waits at most 5 seconds for the modified
+     * configs, and then every other changed config, to be saved
+     * @param interval between saves
+     * @param unit of the interval
+     * @param threshold number of modified configs that causes them to be saved
+     *                  before the interval passes
+     * @see ConfigLoader#stopWriteBehind()
+     */
+    @Beta
+    public static void startWriteBehind(long interval, TimeUnit unit, int threshold) {
+        configSet.startWriteBehind(interval, unit, threshold);
+    }
+
+    /**
+     * Method to stop saving modified configs in the background. Configs
+     * that are marked as modified but not yet saved are saved before returning
+     * @see ConfigLoader#startWriteBehind(long, TimeUnit, int)
+     */
+    @Beta
+    public static void stopWriteBehind() {
+        configSet.stopWriteBehind();
+    }
+
+    /**
+     * Method to mark a config as changed so it is saved by the background saver.
+     * Saves the config straight away if the background saver has not been started
+     * @param name of the changed config, as given by {@link Configuration#name()}
+     * @see ConfigLoader#startWriteBehind(long, TimeUnit, int)
+     */
+    @Beta
+    public static void markModified(String name) {
+        configSet.markModified(name);
+    }
+
+    /**
+     * Method to get the codec used to read and write config files of a format
+     * @param format of the config files
+     * @return the chosen codec of the format
+     */
+    static ConfigurationCodec codec(Format format) {
+        return codecs.get(format);
     }
 
     /**
@@ -411,36 +284,211 @@ public class ConfigLoader {
      */
     @Beta
     public static void chooseDirectoryLocation(File directory) {
-        if (loaded)
-            throw new RuntimeException("Cannot set the config directory after the loader has already loaded.");
-
         if (directory == null) // If null, reset to default location
             directory = new File("configs/");
 
-        ConfigLoader.directory = directory;
+        configSet.chooseDirectory(directory);
     }
 
     /**
-     * Method to see if the loader has loaded or not
-     * @return boolean on whether the loader has already been loaded
+     * Method to choose a file to cache the result of the classpath scan in.
+     * When the loader scans the classpath, the scan is read from the file
+     * instead if the jars and class directories of the classpath have not
+     * changed since it was written. Has no effect when a compile time index
+     * is found, or once the classpath has been scanned. Use null to scan on every start
+     * @param file to cache the scan in
      */
-    public static boolean hasLoaded() {
-        return loaded;
+    @Beta
+    public static void chooseScanCache(File file) {
+        ClasspathScan.chooseCache(file);
     }
 
-    @SuppressWarnings("unchecked")
-    private static  <T> T deserialize(String objString, Class<T> objClass) throws Exception {
-        if (!SelfDeserializable.class.isAssignableFrom(objClass))
-            return new Gson().fromJson(objString, objClass);
+    /**
+     * Method to limit the classpath scan to some packages and their sub packages.
+     * Only the jars and class directories holding the packages are read.
+     * Has no effect when a compile time index is found, or once the classpath
+     * has been scanned. No packages resets to scanning every package
+     * @param basePackages to scan for {@link Configuration} and {@link ConfigurationModel}
+     * @see ConfigLoader#chooseScanFilter(Predicate)
+     */
+    @Beta
+    public static void chooseScanPackages(String... basePackages) {
+        ClasspathScan.chooseScope(basePackages);
+    }
+
+    /**
+     * Method to choose which jars and class directories of the classpath are
+     * read by the classpath scan, such as to skip jars that cannot hold configs.
+     * Use null to read every jar and directory
+     * @param filter that accepts the url of each jar or directory to scan
+     * @see ConfigLoader#chooseScanPackages(String...)
+     */
+    @Beta
+    public static void chooseScanFilter(Predicate<URL> filter) {
+        ClasspathScan.chooseUrlFilter(filter);
+    }
+
+    /**
+     * Method to turn parallel loading on or off. When on, the config files
+     * are read and deserialized concurrently. The distribution of configs
+     * still runs one at a time, in the same order.
+     * Failures are reported together once every config has been read
+     * @param parallel true to load configs concurrently
+     * @see ConfigLoader#chooseLoadExecutor(Executor)
+     */
+    @Beta
+    public static void useParallelLoading(boolean parallel) {
+        configSet.useParallelLoading(parallel);
+    }
+
+    /**
+     * Method to turn parallel 'init' methods on or off. When on, an 'init' method
+     * is called as soon as the 'init' methods of the configs it depends on have
+     * finished, so 'init' methods that do not depend on each other run concurrently.
+     * {@link ConfigurationModel#initTimeout()} only applies when on.
+     * When off, 'init' methods are called one at a time, after those they depend on
+     * @param parallelInit true to call 'init' methods concurrently
+     * @see ConfigurationModel#initDependsOn()
+     * @see ConfigLoader#chooseLoadExecutor(Executor)
+     */
+    @Beta
+    public static void useParallelInit(boolean parallelInit) {
+        configSet.useParallelInit(parallelInit);
+    }
+
+    /**
+     * Method to turn reloading in place on or off. When on, a reload merges
+     * the values read from each config file into the config instance already
+     * loaded, instead of assigning a new instance. References held to a config,
+     * and to the objects and collections within it, stay valid and unchanged
+     * values are kept. The config is changed while it may be in use, so a
+     * thread reading it during a reload may see some fields changed and others
+     * not, and a {@link ConfigSnapshot} taken before the reload sees the changes.
+     * Change listeners are given the same instance as the previous and current config
+     * @param inPlace true to merge reloaded configs into the instances they replace
+     * @see ConfigLoader#reload()
+     */
+    @Beta
+    public static void useInPlaceReload(boolean inPlace) {
+        configSet.useInPlaceReload(inPlace);
+    }
+
+    /**
+     * Method to turn the journal on or off, before the configs are loaded. When on,
+     * every config is stored in the single file 'configs.journal' rather than a file
+     * each, and saving a config appends a record of the members that changed rather
+     * than rewriting it. The journal is compacted in the background once it grows
+     * past {@link ConfigLoader#chooseCompactionThreshold(long)}. Configs are held in
+     * the journal as json, whatever their {@link Configuration#format()}, and a config
+     * not yet in the journal is read from its file. Changes to the journal made outside
+     * of the loader are not watched, they are read on a reload
+     * @param journal true to store the configs in a journal
+     * @see ConfigLoader#save()
+     */
+    @Beta
+    public static void useJournal(boolean journal) {
+        configSet.useJournal(journal);
+    }
+
+    /**
+     * Method to choose the length the journal may grow to before it is compacted,
+     * before the configs are loaded. A compaction replaces the journal with the
+     * latest record of each config, it is not started until the journal has
+     * doubled in length since the last compaction. Defaults to 4MB
+     * @param bytes length of the journal that starts a compaction
+     * @see ConfigLoader#useJournal(boolean)
+     */
+    @Beta
+    public static void chooseCompactionThreshold(long bytes) {
+        configSet.chooseCompactionThreshold(bytes);
+    }
 
-        SelfDeserializable obj = (SelfDeserializable) objClass.newInstance();
-        return (T) obj.deserialize(objString, objClass);
+    /**
+     * Method to choose the executor used for parallel loading and parallel
+     * 'init' methods. The executor is not shutdown by the loader. Use null to
+     * reset to the default, a virtual thread per config when available,
+     * otherwise a bounded pool
+     * @param executor to read and deserialize configs with
+     * @see ConfigLoader#useParallelLoading(boolean)
+     * @see ConfigLoader#useParallelInit(boolean)
+     */
+    @Beta
+    public static void chooseLoadExecutor(Executor executor) {
+        configSet.chooseLoadExecutor(executor);
     }
 
-    private static String serialize(Object obj) throws Exception {
-        if (!SelfSerializable.class.isAssignableFrom(obj.getClass()))
-            return new Gson().toJson(obj);
+    /**
+     * Method to choose the codec used to read and write config files of a
+     * format, for every {@link ConfigSet}. Use null to reset to the default codec of the format
+     * @param format of the config files
+     * @param codec to read and write the config files with
+     */
+    @Beta
+    public static void chooseCodec(Format format, ConfigurationCodec codec) {
+        if (codec == null)
+            codec = format == Format.BINARY ? new BinaryCodec() : jsonCodec;
+
+        codecs.put(format, codec);
+    }
 
-        return ((SelfSerializable)obj).serialise(obj);
+    /**
+     * Method to add a listener that is told how long each phase of loading
+     * and saving takes, for each config, along with the bytes read and written
+     * and any failures
+     * @param listener to add
+     * @see LoaderStatistics
+     */
+    @Beta
+    public static void addListener(LoaderListener listener) {
+        configSet.addListener(listener);
+    }
+
+    /**
+     * Method to remove a listener
+     * @param listener to remove
+     * @see ConfigLoader#addListener(LoaderListener)
+     */
+    @Beta
+    public static void removeListener(LoaderListener listener) {
+        configSet.removeListener(listener);
+    }
+
+    /**
+     * Method to turn the jmx statistics on or off. When on, the statistics of
+     * the latest load, reload and save are registered with the platform MBean
+     * server as {@value #MBEAN_NAME}
+     * @param jmx true to register the statistics, false to unregister them
+     * @see LoaderStatistics
+     */
+    @Beta
+    public static synchronized void useJmx(boolean jmx) {
+        if (jmx == (statistics != null))
+            return;
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (jmx) {
+                LoaderStatistics registered = new LoaderStatistics();
+                server.registerMBean(registered, name);
+                statistics = registered;
+                addListener(statistics);
+            } else {
+                removeListener(statistics);
+                statistics = null;
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new RuntimeException("Unable to " + (jmx ? "register" : "unregister")
+                    + " the configuration statistics MBean: " + MBEAN_NAME, e);
+        }
+    }
+
+    /**
+     * Method to see if the loader has loaded or not
+     * @return boolean on whether the loader has already been loaded
+     */
+    public static boolean hasLoaded() {
+        return configSet.hasLoaded();
     }
 }
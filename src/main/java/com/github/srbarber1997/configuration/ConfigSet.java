@@ -0,0 +1,1366 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.metrics.LoaderListener;
+import com.github.srbarber1997.configuration.metrics.Operation;
+import com.github.srbarber1997.configuration.metrics.Phase;
+import com.github.srbarber1997.configuration.serialise.SelfSerializable;
+import com.google.common.annotations.Beta;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.io.Files;
+
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * A set of configs stored in a single directory. Every set loads the same
+ * {@link Configuration} resources, found by scanning the classpath once, but
+ * reads them from its own directory into its own instances. Many sets can be
+ * loaded in the same jre, such as a set per tenant, without sharing any configs.
+ * Configs of a set are read with {@link #get(String, Class)} or {@link #snapshot()},
+ * only the set used by {@link ConfigLoader} assigns the {@link Configuration} fields
+ * <pre>
+ * ConfigSet tenant = new ConfigSet(new File("tenants/" + id));
+ * tenant.load(false);
+ * Settings settings = tenant.get("settings", Settings.class);
+ * </pre>
+ * Two sets should not share a directory, as each saves over the other's changes
+ * @see ConfigLoader
+ */
+@Beta
+public class ConfigSet implements Closeable {
+
+    /**
+     * Boolean to mark if the set has been loaded
+     */
+    private boolean loaded = false;
+
+    /**
+     * True if the set assigns the {@link Configuration} fields, only the set of {@link ConfigLoader} does
+     */
+    private final boolean distributes;
+
+    /**
+     * Maps a field to it's resource name, shared by every set
+     */
+    private Map<Field, Configuration> data = Collections.emptyMap();
+
+    /**
+     * The classpath scan the fields were found by, used for their setters
+     */
+    private ClasspathScan scan;
+
+    /**
+     * Holder of each resource, assigned to its {@link LazyConfiguration} fields
+     */
+    private Map<Configuration, LazyConfiguration<?>> holders = new HashMap<>();
+
+    /**
+     * Lock held while the configs are replaced, as lazy configs are
+     * added when first used without holding the set's lock
+     */
+    private final Object publishLock = new Object();
+
+    /**
+     * Maps the name of a resource to the stored instances of the object.
+     * Each {@link Configuration#name()} has a corresponding object
+     * Where config1.name().equals(config2.name()) you can assume
+     * their objects are the same instance. Replaced rather than
+     * modified once loaded, so it can be read without the lock
+     */
+    private volatile Map<Configuration, Object> configs = Collections.emptyMap();
+
+    /**
+     * Snapshot of the configs, published once every config of a load or reload is ready
+     */
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>(ConfigSnapshot.EMPTY);
+
+    /**
+     * Maps a resource to the hash of the json last read from or written
+     * to its file. Used to skip saving configs that have not changed
+     */
+    private Map<Configuration, HashCode> hashes = new ConcurrentHashMap<>();
+
+    /**
+     * Directory where the config files are stored
+     */
+    private File directory;
+
+    private final Logger logger = new Logger();
+
+    /**
+     * Listeners told how long each phase of loading and saving takes
+     */
+    private final Listeners listeners = new Listeners(logger);
+
+    /**
+     * Listeners told when the config with a name changes on a reload
+     */
+    private final Map<String, List<ChangeListener<?>>> changeListeners = new ConcurrentHashMap<>();
+
+    /**
+     * Boolean to mark if config files should be read and deserialized concurrently
+     */
+    private boolean parallel = false;
+
+    /**
+     * Boolean to mark if 'init' methods that do not depend on each other should be called concurrently
+     */
+    private boolean parallelInit = false;
+
+    /**
+     * Boolean to mark if reloaded configs should be merged into the instances they replace
+     */
+    private boolean inPlaceReload = false;
+
+    /**
+     * Executor used when loading in parallel, null uses a default executor
+     */
+    private Executor loadExecutor;
+
+    /**
+     * Watches the config directory for changed files, null when not watching
+     */
+    private ConfigWatcher watcher;
+
+    /**
+     * Saves modified configs in the background, null when configs are saved as they are marked
+     */
+    private WriteBehind writeBehind;
+
+    /**
+     * Saves the configs when the jre exits, null until loaded
+     */
+    private Thread shutdownHook;
+
+    /**
+     * Longest time the shutdown hook waits for modified configs to be saved
+     */
+    private static final long SHUTDOWN_FLUSH_SECONDS = 5;
+
+    /**
+     * Boolean to mark if the configs should be stored in a journal rather than a file each
+     */
+    private boolean journaled = false;
+
+    /**
+     * Length in bytes the journal may grow to before it is compacted
+     */
+    private long compactionThreshold = 4 * 1024 * 1024;
+
+    /**
+     * Journal the configs are stored in, null when each config is stored in its own file
+     */
+    private ConfigJournal journal;
+
+    /**
+     * Constructor of a set stored in a directory
+     * @param directory to store the config files of the set
+     */
+    public ConfigSet(File directory) {
+        this(directory, false);
+    }
+
+    /**
+     * Constructor used by {@link ConfigLoader} for the set that assigns the fields
+     * @param directory to store the config files of the set
+     * @param distributes true to assign the {@link Configuration} fields
+     */
+    ConfigSet(File directory, boolean distributes) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.distributes = distributes;
+    }
+
+    /**
+     * Method used to load the configs of the set. The method
+     * runs all the steps required to load or create configs.
+     * Adds a shutdown hook to save all configs when the jre
+     * exits. This prevents lost of data, however is not 100%
+     * guaranteed {@link Runtime#addShutdownHook(Thread)}
+     * @param log false to log nothing, otherwise the set logs through SLF4J
+     * @see ConfigSet#setup()
+     * @see ConfigSet#configure()
+     * @see ConfigSet#distribute()
+     */
+    public synchronized void load(boolean log) {
+        if (hasLoaded())
+            return;
+
+        logger.setLog(log);
+        logger.info("Loading configurations...");
+        long start = System.nanoTime();
+        try {
+            try {
+                setup();
+            } catch (RuntimeException e) {
+                listeners.failed(null, Phase.SETUP, e);
+                throw e;
+            }
+            listeners.phaseFinished(Phase.SETUP, System.nanoTime() - start);
+            configure();
+            distribute();
+        } finally {
+            listeners.operationFinished(Operation.LOAD, System.nanoTime() - start);
+        }
+        logger.info("Finished loading configurations");
+
+        loaded = true;
+        shutdownHook = new Thread(this::shutdown, "Config Loader Shutdown Hook");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    public void load() {
+        load(true);
+    }
+
+    /**
+     * Method to reload the configs. This simply reads the configs from the
+     * hard disk again and reassigns the fields with the correct instance.
+     * Unsaved changes will be overwritten
+     */
+    public synchronized void reload() {
+        if (!hasLoaded())
+            throw new RuntimeException("Cannot reload configurations before you have loaded it first");
+
+        logger.info("Reloading configurations...");
+        long start = System.nanoTime();
+        try {
+            Map<Configuration, Object> previous = configs;
+            if (journal != null)
+                refreshJournal();
+            Map<Configuration, ConfigDiff> patched = configure();
+            distribute();
+            notifyChanged(previous, configs, patched);
+        } finally {
+            listeners.operationFinished(Operation.RELOAD, System.nanoTime() - start);
+        }
+        logger.info("Finished reloading configurations");
+    }
+
+    /**
+     * Method that reloads only the named configs, used when their files
+     * are changed outside of the set. Configs whose file still holds
+     * the json last read or written by the set are left as they are,
+     * as are configs that fail to load
+     * @param names of the changed configs, or null to check every config
+     * @see ConfigSet#startWatching()
+     */
+    synchronized void reloadChanged(Set<String> names) {
+        if (!hasLoaded())
+            return;
+
+        long start = System.nanoTime();
+        Map<Configuration, Object> reloaded = new LinkedHashMap<>();
+        data.forEach((field, configuration) -> {
+            if (names != null && !names.contains(configuration.name()) || reloaded.containsKey(configuration))
+                return;
+            // Lazy configs that have not been used yet will read the changed file when they are
+            if (configuration.lazy() && !holders.get(configuration).isLoaded())
+                return;
+            try {
+                Object config = loadConfiguration(configuration, ClasspathScan.modelType(field), true);
+                if (config != null)
+                    reloaded.put(configuration, config);
+            } catch (RuntimeException e) {
+                logger.error(e);
+            }
+        });
+        if (reloaded.isEmpty())
+            return;
+
+        logger.info("Reloading changed configurations...");
+        try {
+            Map<Configuration, ConfigDiff> patched = inPlaceReload ? patch(reloaded) : Collections.emptyMap();
+            initiate(reloaded, true);
+            Map<Configuration, Object> previous = configs;
+            publishChanged(reloaded);
+            distribute(reloaded::containsKey);
+            notifyChanged(previous, reloaded, patched);
+        } finally {
+            listeners.operationFinished(Operation.RELOAD, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Method to start watching the config directory for changes made outside
+     * of the set, such as a user editing a config file. Events are coalesced
+     * until the directory has been quiet for 200 milliseconds
+     * @see ConfigSet#startWatching(long, TimeUnit)
+     * @see ConfigSet#stopWatching()
+     */
+    public void startWatching() {
+        startWatching(200, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method to start watching the config directory for changes made outside
+     * of the set, such as a user editing a config file. Only the configs
+     * whose files have changed are reloaded and reassigned
+     * @param debounce time the directory must be quiet before changes are reloaded
+     * @param unit of the debounce time
+     * @see ConfigSet#stopWatching()
+     */
+    public synchronized void startWatching(long debounce, TimeUnit unit) {
+        if (!hasLoaded())
+            throw new RuntimeException("Cannot watch configurations before you have loaded them first");
+        if (watcher != null)
+            return;
+
+        Path root = directory.toPath().toAbsolutePath();
+        Set<Path> directories = new HashSet<>();
+        directories.add(root);
+        data.values().forEach(configuration ->
+                directories.add(root.resolve(configuration.name() + ".config").getParent()));
+        try {
+            watcher = new ConfigWatcher(root, directories, debounce, unit, this::reloadChanged, logger);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to watch the config directory at: " + root, e);
+        }
+        logger.info("Watching config directory, found at: {}", root);
+    }
+
+    /**
+     * Method to stop watching the config directory
+     * @see ConfigSet#startWatching()
+     */
+    public synchronized void stopWatching() {
+        if (watcher == null)
+            return;
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            logger.error(e);
+        }
+        watcher = null;
+    }
+
+    /**
+     * Method to save the configs to the hard disk. Configs that have not
+     * changed since they were last loaded or saved are not written again
+     * @see ConfigSet#save(String)
+     */
+    public synchronized void save() {
+        long start = System.nanoTime();
+        configs.forEach(this::saveConfiguration);
+        listeners.operationFinished(Operation.SAVE, System.nanoTime() - start);
+    }
+
+    /**
+     * Method to save a single config to the hard disk. The config is not
+     * written if it has not changed since it was last loaded or saved
+     * @param name of the config to save, as given by {@link Configuration#name()}
+     * @see ConfigSet#save()
+     */
+    public synchronized void save(String name) {
+        if (!hasLoaded())
+            throw new RuntimeException("Cannot save a configuration before you have loaded it first");
+
+        Configuration configuration = configs.keySet().stream()
+                .filter(c -> c.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No configuration called '" + name + "' has been loaded"));
+        long start = System.nanoTime();
+        saveConfiguration(configuration, configs.get(configuration));
+        listeners.operationFinished(Operation.SAVE, System.nanoTime() - start);
+    }
+
+    /**
+     * Method to get a config of the set. A lazy config is loaded if it
+     * has not been used yet
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @param type of the config's model
+     * @param <T> type of the config's model
+     * @return the config, or null if the set has no config with the name
+     * @throws ClassCastException if the config is not of the type
+     */
+    public <T> T get(String name, Class<T> type) {
+        ConfigSnapshot current = snapshot.get();
+        if (current.contains(name))
+            return current.get(name, type);
+
+        for (Map.Entry<Configuration, LazyConfiguration<?>> holder : holders.entrySet())
+            if (holder.getKey().name().equals(name))
+                return type.cast(holder.getValue().get());
+        return null;
+    }
+
+    /**
+     * Method to add a listener told when a config changes on a reload,
+     * with the instances from before and after the reload and the fields
+     * that differ. The listener is not told about reloads that change nothing
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @param type of the config's model
+     * @param listener to add
+     * @param <T> type of the config's model
+     * @see ConfigSet#removeChangeListener(String, ConfigChangeListener)
+     */
+    public <T> void addChangeListener(String name, Class<T> type, ConfigChangeListener<? super T> listener) {
+        changeListeners.computeIfAbsent(name, n -> new CopyOnWriteArrayList<>())
+                .add(new ChangeListener<>(type, listener));
+    }
+
+    /**
+     * Method to remove a listener of a config
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @param listener to remove
+     */
+    public void removeChangeListener(String name, ConfigChangeListener<?> listener) {
+        List<ChangeListener<?>> listening = changeListeners.get(name);
+        if (listening != null)
+            listening.removeIf(changeListener -> changeListener.listener == listener);
+    }
+
+    /**
+     * Method that tells the change listeners about the configs that differ from
+     * their previous instance. Configs without listeners are not compared
+     * @param previous configs from before the reload
+     * @param reloaded configs from the reload
+     * @param patched diffs of the configs merged into their previous instance
+     */
+    private void notifyChanged(Map<Configuration, Object> previous, Map<Configuration, Object> reloaded,
+                               Map<Configuration, ConfigDiff> patched) {
+        if (changeListeners.isEmpty())
+            return;
+
+        reloaded.forEach((configuration, config) -> {
+            List<ChangeListener<?>> listening = changeListeners.get(configuration.name());
+            Object old = previous.get(configuration);
+            if (listening == null || listening.isEmpty() || old == null)
+                return;
+
+            ConfigDiff diff = patched.containsKey(configuration) ? patched.get(configuration) : diff(old, config);
+            if (diff == null || diff.isEmpty())
+                return;
+
+            if (logger.isDebugEnabled())
+                logger.debug(" - Resource called '{}' changed: {}", configuration.name(), diff.getChangedPaths());
+            listening.forEach(listener -> {
+                try {
+                    listener.changed(old, config, diff);
+                } catch (RuntimeException e) {
+                    logger.error(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Method that finds the fields that differ between two instances of a config
+     * @return the diff, or null if the instances are the same or could not be compared
+     */
+    private ConfigDiff diff(Object previous, Object current) {
+        if (previous == current)
+            return null;
+        try {
+            return ConfigDiff.between(previous, current);
+        } catch (RuntimeException e) {
+            logger.error(e);
+            return null;
+        }
+    }
+
+    /**
+     * A change listener with the model type it expects
+     */
+    private static class ChangeListener<T> {
+        private final Class<T> type;
+        private final ConfigChangeListener<? super T> listener;
+
+        ChangeListener(Class<T> type, ConfigChangeListener<? super T> listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+
+        void changed(Object previous, Object current, ConfigDiff diff) {
+            listener.changed(type.cast(previous), type.cast(current), diff);
+        }
+    }
+
+    /**
+     * Method to get a consistent view of the configs of the set. Configs read
+     * from the same snapshot are always from the same load or reload
+     * @return the latest snapshot, empty before the configs have been loaded
+     * @see ConfigSnapshot#getGeneration()
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Method to start saving modified configs on a background thread.
+     * Configs marked with {@link ConfigSet#markModified(String)} are collected
+     * and saved together on the interval
+     * @param interval between saves
+     * @param unit of the interval
+     * @param threshold number of modified configs that causes them to be saved
+     *                  before the interval passes
+     * @see ConfigSet#stopWriteBehind()
+     */
+    public synchronized void startWriteBehind(long interval, TimeUnit unit, int threshold) {
+        if (!hasLoaded())
+            throw new RuntimeException("Cannot save configurations in the background before you have loaded them first");
+        if (writeBehind != null)
+            return;
+
+        writeBehind = new WriteBehind(interval, unit, threshold, this::save, logger);
+    }
+
+    /**
+     * Method to stop saving modified configs in the background. Configs
+     * that are marked as modified but not yet saved are saved before returning
+     * @see ConfigSet#startWriteBehind(long, TimeUnit, int)
+     */
+    public void stopWriteBehind() {
+        WriteBehind stopping;
+        synchronized (this) {
+            stopping = writeBehind;
+            writeBehind = null;
+        }
+        // Not holding the lock, the final saves need it
+        if (stopping != null)
+            stopping.close(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Method to mark a config as changed so it is saved by the background saver.
+     * Saves the config straight away if the background saver has not been started
+     * @param name of the changed config, as given by {@link Configuration#name()}
+     * @see ConfigSet#startWriteBehind(long, TimeUnit, int)
+     */
+    public void markModified(String name) {
+        WriteBehind current;
+        synchronized (this) {
+            if (!hasLoaded())
+                throw new RuntimeException("Cannot save a configuration before you have loaded it first");
+            current = writeBehind;
+        }
+        if (current != null)
+            current.modified(name);
+        else
+            save(name);
+    }
+
+    /**
+     * Method to stop using the set. Stops watching the config directory, saves
+     * the modified configs and removes the shutdown hook. The set cannot be loaded again
+     */
+    @Override
+    public void close() {
+        Thread hook;
+        synchronized (this) {
+            hook = shutdownHook;
+            shutdownHook = null;
+        }
+        if (hook == null)
+            return;
+
+        stopWatching();
+        stopWriteBehind();
+        save();
+        if (journal != null)
+            journal.close();
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException ignored) {
+            // Already shutting down, the hook saves the configs again
+        }
+    }
+
+    /**
+     * Method run by the shutdown hook. Saves every config. When saving in the
+     * background, the modified configs are saved first, then every other config,
+     * giving up on whatever is left once the time allowed has passed
+     */
+    private void shutdown() {
+        WriteBehind stopping;
+        synchronized (this) {
+            stopping = writeBehind;
+            writeBehind = null;
+        }
+        if (stopping == null) {
+            save();
+            return;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_FLUSH_SECONDS);
+        if (!stopping.close(SHUTDOWN_FLUSH_SECONDS, TimeUnit.SECONDS)) {
+            logger.info("Timed out saving modified configurations on shutdown");
+            return;
+        }
+
+        // Configs changed without being marked are saved too, unchanged configs are skipped by the save
+        Thread saver = new Thread(this::save, "Config Loader Shutdown Save");
+        saver.setDaemon(true);
+        saver.start();
+        try {
+            saver.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (saver.isAlive())
+            logger.info("Timed out saving configurations on shutdown");
+    }
+
+    /**
+     * Method that writes a config to its resource file, unless its serialized
+     * form matches the one last read from or written to the file. The config is
+     * serialized once, streamed to a temporary file that only replaces the file if
+     * the bytes differ. The file is replaced atomically, forced to the disk as set by {@link Configuration#durability()}.
+     * The modified chunks of its {@link Sectioned} fields are written first.
+     * When the set uses a journal, the config is appended to the journal instead
+     * @param configuration of the config being saved
+     * @param o the config instance
+     */
+    private void saveConfiguration(Configuration configuration, Object o) {
+        Phase phase = Phase.WRITE;
+        try {
+            // Sections are written to their own files, so are saved even when the config file is unchanged
+            Sections.flush(o);
+
+            phase = Phase.SERIALIZE;
+            long start = System.nanoTime();
+            if (journal != null) {
+                StringWriter json = new StringWriter();
+                ConfigLoader.jsonCodec.write(o, json);
+                listeners.configPhaseFinished(configuration.name(), Phase.SERIALIZE, System.nanoTime() - start);
+
+                phase = Phase.WRITE;
+                start = System.nanoTime();
+                int appended = journal.append(configuration.name(), json.toString(),
+                        !configuration.readable(), configuration.durability());
+                if (appended > 0) {
+                    listeners.configPhaseFinished(configuration.name(), Phase.WRITE, System.nanoTime() - start);
+                    listeners.bytesWritten(configuration.name(), appended);
+                }
+                return;
+            }
+
+            // Streamed once to the temporary file, which only replaces the config file if the bytes differ
+            File file = new File(directory.toString() + "/" + configuration.name() + ".config");
+            try (AtomicFileWriter.Pending pending = AtomicFileWriter.open(file, configuration.durability())) {
+                CountingOutputStream counting = new CountingOutputStream(pending.stream());
+                HashingOutputStream hashing = new HashingOutputStream(Hashing.murmur3_128(), counting);
+                writeConfiguration(configuration, o, hashing);
+                HashCode hash = hashing.hash();
+                listeners.configPhaseFinished(configuration.name(), Phase.SERIALIZE, System.nanoTime() - start);
+                if (hash.equals(hashes.get(configuration)))
+                    return;
+
+                phase = Phase.WRITE;
+                start = System.nanoTime();
+                pending.commit();
+                hashes.put(configuration, hash);
+                listeners.configPhaseFinished(configuration.name(), Phase.WRITE, System.nanoTime() - start);
+                listeners.bytesWritten(configuration.name(), counting.getCount());
+            }
+        } catch (Exception e) {
+            listeners.failed(configuration.name(), phase, e);
+            logger.error(e);
+        }
+    }
+
+    /**
+     * Method that writes a config in the format and compression of its configuration
+     * @param configuration of the config being written
+     * @param o the config instance
+     * @param out stream of the file
+     * @throws Exception if the config could not be written
+     */
+    private static void writeConfiguration(Configuration configuration, Object o, OutputStream out) throws Exception {
+        configuration.compression().compress(out, configuration.compressionLevel(), compressed -> {
+            configuration.format().writeHeader(compressed);
+            ConfigLoader.codec(configuration.format()).write(o, compressed, configuration);
+        });
+    }
+
+    /**
+     * --- Setup Phase ---
+     * Method that sets up the set to load in config. The fields found by
+     * the shared {@link ClasspathScan} are used, scanning the classpath
+     * if no set has been loaded yet. A holder is created for each lazy resource
+     */
+    private void setup() {
+        logger.info("Setting up...");
+        if (journaled)
+            journal = new ConfigJournal(new File(directory, ConfigJournal.FILE_NAME), compactionThreshold, logger);
+        scan = ClasspathScan.get(logger);
+        data = scan.getData();
+
+        holders = new HashMap<>();
+        data.forEach((field, configuration) -> {
+            if (field.getType() != LazyConfiguration.class)
+                return;
+            Class<?> type = ClasspathScan.modelType(field);
+            holders.computeIfAbsent(configuration, c -> new LazyConfiguration<>(() -> loadLazily(c, type)));
+        });
+    }
+
+    /**
+     * --- Configure Phase ---
+     * Method that configures the configs that have been found. The method
+     * decides whether to load an existing config or generate a new one.
+     *
+     * When loading a model, the order is (May be different if you
+     * are using a custom serializer, {@link SelfSerializable}):
+     * 1. Creates instance using the no-args constructor
+     * 2. Sets the fields to the default values either set in the constructor or as
+     * defined in the {@link ConfigurationModel#defaultResource()}
+     * 3. (Existing only) Overwrites default values with those from the existing model
+     * 4. Calls 'init' method of the method if one exists
+     * On a reload in place, each config is then merged into the instance it replaces
+     * @return diffs of the configs merged into their previous instance, that have change listeners
+     */
+    private Map<Configuration, ConfigDiff> configure() {
+        logger.info("Configuring...");
+        Map<Configuration, Object> loadedConfigs = new LinkedHashMap<>();
+        hashes = new ConcurrentHashMap<>();
+
+        if (!directory.exists())
+            if (directory.mkdirs())
+                logger.info(" - Generated config directory, found at: {}", directory.getAbsolutePath());
+            else
+                logger.warn(" - Unable to generate a config directory at: {}", directory.getAbsolutePath());
+        else
+            logger.info(" - Using config directory, found at: {}", directory.getAbsolutePath());
+
+        // The first field found for a resource decides the model type it is loaded as
+        Map<Configuration, Class<?>> resources = new LinkedHashMap<>();
+        data.forEach((field, configuration) -> {
+            if (!configuration.lazy())
+                resources.putIfAbsent(configuration, ClasspathScan.modelType(field));
+        });
+
+        Map<Configuration, Future<Object>> loading = new LinkedHashMap<>();
+        ExecutorService pool = parallel && loadExecutor == null ? defaultExecutor(resources.size()) : null;
+        try {
+            if (parallel) {
+                Executor executor = pool != null ? pool : loadExecutor;
+                ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+                resources.forEach((configuration, type) -> {
+                    FutureTask<Object> task = new FutureTask<>(() -> {
+                        Thread thread = Thread.currentThread();
+                        ClassLoader previous = thread.getContextClassLoader();
+                        thread.setContextClassLoader(classLoader);
+                        try {
+                            return loadConfiguration(configuration, type);
+                        } finally {
+                            thread.setContextClassLoader(previous);
+                        }
+                    });
+                    loading.put(configuration, task);
+                    executor.execute(task);
+                });
+            } else
+                resources.forEach((configuration, type) -> {
+                    FutureTask<Object> task = new FutureTask<>(() -> loadConfiguration(configuration, type));
+                    loading.put(configuration, task);
+                    task.run();
+                });
+
+            // Results are collected in discovery order, so the phases that follow are deterministic
+            List<Throwable> failures = new ArrayList<>();
+            loading.forEach((configuration, future) -> {
+                try {
+                    Object config = future.get();
+                    if (config != null)
+                        loadedConfigs.put(configuration, config);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.add(e);
+                }
+            });
+            throwFailures(failures, "load");
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+
+        Map<Configuration, ConfigDiff> patched = loaded && inPlaceReload ? patch(loadedConfigs) : Collections.emptyMap();
+        initiate(loadedConfigs, loaded);
+        publish(loadedConfigs);
+        // Lazy configs are read again when next used
+        holders.forEach((configuration, holder) -> holder.set(loadedConfigs.get(configuration)));
+        return patched;
+    }
+
+    /**
+     * Method that merges reloaded configs into the instances they replace,
+     * replacing each config in the map with the instance it was merged into.
+     * The changes of configs with change listeners are found before merging,
+     * as the previous values are lost once merged
+     * @param reloaded configs to merge, updated with the merged instances
+     * @return diffs of the merged configs that have change listeners
+     * @see InPlacePatcher
+     */
+    private Map<Configuration, ConfigDiff> patch(Map<Configuration, Object> reloaded) {
+        Map<Configuration, Object> current = configs;
+        Map<Configuration, ConfigDiff> diffs = new HashMap<>();
+        reloaded.replaceAll((configuration, config) -> {
+            Object existing = current.get(configuration);
+            if (existing == null)
+                return config;
+
+            List<ChangeListener<?>> listening = changeListeners.get(configuration.name());
+            ConfigDiff diff = listening == null || listening.isEmpty() ? null : diff(existing, config);
+            if (diff != null)
+                diffs.put(configuration, diff);
+            return InPlacePatcher.patch(existing, config);
+        });
+        return diffs;
+    }
+
+    /**
+     * Method that makes a complete set of configs the current configs and
+     * publishes a new {@link ConfigSnapshot} of them in a single step
+     * @param loadedConfigs every config, not modified afterwards
+     */
+    private void publish(Map<Configuration, Object> loadedConfigs) {
+        synchronized (publishLock) {
+            configs = loadedConfigs;
+            snapshot.set(snapshot.get().next(loadedConfigs));
+        }
+    }
+
+    /**
+     * Method that replaces some of the current configs, publishing a new
+     * {@link ConfigSnapshot} and updating their {@link LazyConfiguration} holders
+     * @param changed configs to add or replace
+     */
+    private void publishChanged(Map<Configuration, Object> changed) {
+        synchronized (publishLock) {
+            Map<Configuration, Object> updated = new LinkedHashMap<>(configs);
+            updated.putAll(changed);
+            publish(updated);
+        }
+        changed.forEach((configuration, config) -> {
+            LazyConfiguration<?> holder = holders.get(configuration);
+            if (holder != null && holder.isLoaded())
+                holder.set(config);
+        });
+    }
+
+    /**
+     * Method that loads a lazy config when it is first used. Does not hold the
+     * set's lock, so an 'init' method may use another lazy config
+     * @param configuration to load
+     * @param type of the model to load the config as
+     * @return the loaded and initiated config, or null if the resource could not be read
+     */
+    private Object loadLazily(Configuration configuration, Class<?> type) {
+        Object config = loadConfiguration(configuration, type);
+        if (config == null)
+            return null;
+
+        Map<Configuration, Object> loadedConfig = Collections.singletonMap(configuration, config);
+        initiate(loadedConfig, false);
+        publishChanged(loadedConfig);
+        logger.debug(" - Lazily loaded resource called '{}'", configuration.name());
+        return config;
+    }
+
+    /**
+     * Method that calls the 'init' method of each config that has one, after
+     * the 'init' methods of the configs it depends on. On a reload only models
+     * with {@link ConfigurationModel#initOnReload()} are initiated
+     * @param configs to initiate
+     * @param reloading true if the configs have been initiated before
+     * @see ConfigurationModel#initDependsOn()
+     */
+    private void initiate(Map<Configuration, Object> configs, boolean reloading) {
+        Set<String> names = new HashSet<>();
+        data.values().forEach(configuration -> names.add(configuration.name()));
+
+        List<InitRunner.Init> inits = new ArrayList<>();
+        configs.forEach((configuration, o) -> {
+            ConfigurationModel model = o.getClass().getAnnotation(ConfigurationModel.class);
+            if (reloading && !model.initOnReload())
+                return;
+            // Run 'init' method if it exists
+            Optional<MethodHandle> init = ClasspathScan.initHandle(o.getClass());
+            if (!init.isPresent())
+                return;
+
+            Set<String> dependsOn = new LinkedHashSet<>(Arrays.asList(model.initDependsOn()));
+            dependsOn.forEach(name -> {
+                if (!names.contains(name))
+                    throw new RuntimeException("The 'init' method of " + o.getClass().getSimpleName()
+                            + " depends on a configuration called '" + name + "' that does not exist");
+            });
+            inits.add(new InitRunner.Init(configuration.name(), dependsOn, model.initTimeout(), () -> {
+                try {
+                    init.get().invokeExact(o);
+                } catch (Throwable e) {
+                    listeners.failed(configuration.name(), Phase.INIT, e);
+                    logger.error(e);
+                    throw new RuntimeException("The 'init' method of " + o.getClass().getSimpleName() + " threw an exception:\n"
+                            + e.getClass().getName() + ": "
+                            + e.getMessage(), e);
+                }
+            }));
+        });
+
+        long start = System.nanoTime();
+        InitRunner runner = new InitRunner(logger, listeners);
+        if (!parallelInit || inits.size() < 2) {
+            runner.run(inits);
+            listeners.phaseFinished(Phase.INIT, System.nanoTime() - start);
+            return;
+        }
+
+        ExecutorService pool = loadExecutor == null ? defaultExecutor(inits.size()) : null;
+        try {
+            throwFailures(runner.run(inits, pool != null ? pool : loadExecutor), "initiate");
+        } finally {
+            if (pool != null)
+                pool.shutdownNow();
+        }
+        listeners.phaseFinished(Phase.INIT, System.nanoTime() - start);
+    }
+
+    /**
+     * Method that finds or creates the resource file of a config and
+     * reads it, if blank a default instance is generated. Safe to
+     * run concurrently for different configs
+     * @param configuration to load
+     * @param type of the model to load the config as
+     * @return the loaded config, or null if the resource could not be read
+     */
+    private Object loadConfiguration(Configuration configuration, Class<?> type) {
+        return loadConfiguration(configuration, type, false);
+    }
+
+    /**
+     * Method that finds or creates the resource file of a config and
+     * reads it, if blank a default instance is generated. Safe to
+     * run concurrently for different configs
+     * @param configuration to load
+     * @param type of the model to load the config as
+     * @param onlyIfChanged true to skip a resource whose json matches
+     *                      the json last read from or written to it
+     * @return the loaded config, or null if the resource could not be read or is skipped
+     */
+    private Object loadConfiguration(Configuration configuration, Class<?> type, boolean onlyIfChanged) {
+        File resource = new File(directory.getPath() + "/" + configuration.name() + ".config");
+
+        // A config not yet in the journal is read from its file, if it has one, and moved into the journal when saved
+        if (journal != null) {
+            String json;
+            try {
+                json = journal.read(configuration.name());
+            } catch (IOException e) {
+                listeners.failed(configuration.name(), Phase.READ, e);
+                logger.error(e);
+                return null;
+            }
+            if (json != null || resource.length() == 0)
+                return onlyIfChanged ? null : loadJournaled(configuration, type, json);
+        }
+
+        // Find or create resource files
+        try {
+            if (!resource.exists()) {
+                Files.createParentDirs(resource);
+                if (resource.createNewFile())
+                    logger.debug(" - Generated configuration file: {}.config", configuration.name());
+            }
+        } catch (IOException e) {
+            listeners.failed(configuration.name(), Phase.READ, e);
+            logger.error(e);
+        }
+
+        // Read data from resources, if blank a default instance is generated
+        long start = System.nanoTime();
+        Phase phase = Phase.READ;
+        try {
+            if (resource.length() == 0) {
+                phase = Phase.DESERIALIZE;
+                Object config = loadDefault(type);
+                listeners.configPhaseFinished(configuration.name(), Phase.DESERIALIZE, System.nanoTime() - start);
+                phase = Phase.READ;
+                Sections.bind(config, directory, configuration);
+                return config;
+            }
+
+            if (onlyIfChanged && Files.asByteSource(resource).hash(Hashing.murmur3_128()).equals(hashes.get(configuration)))
+                return null;
+
+            // Every read is timed, so the file is only wrapped when a listener will be told
+            InputStream file = new FileInputStream(resource);
+            TimedInputStream timed = listeners.isEmpty() ? null : new TimedInputStream(file);
+            try (HashingInputStream hashing = new HashingInputStream(Hashing.murmur3_128(), timed != null ? timed : file);
+                 InputStream raw = new BufferedInputStream(hashing);
+                 InputStream in = Compression.detect(raw).decompress(raw)) {
+                phase = Phase.DESERIALIZE;
+                Object config = loadInstance(in, configuration, type, resource.getPath());
+                phase = Phase.READ;
+                // The whole file is hashed, including anything after the compressed data
+                ByteStreams.exhaust(in);
+                ByteStreams.exhaust(raw);
+                hashes.put(configuration, hashing.hash());
+
+                // Reading and deserializing are interleaved, so the time spent waiting for the file is taken out
+                if (timed != null) {
+                    long nanos = System.nanoTime() - start;
+                    listeners.configPhaseFinished(configuration.name(), Phase.READ, timed.getNanos());
+                    listeners.configPhaseFinished(configuration.name(), Phase.DESERIALIZE, nanos - timed.getNanos());
+                    listeners.bytesRead(configuration.name(), timed.getCount());
+                }
+                Sections.bind(config, directory, configuration);
+                return config;
+            }
+        } catch (IOException e) {
+            listeners.failed(configuration.name(), Phase.READ, e);
+            logger.error(e);
+            return null;
+        } catch (RuntimeException e) {
+            listeners.failed(configuration.name(), phase, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Method that drops the configs read from the journal, so a reload reads it again
+     */
+    private void refreshJournal() {
+        try {
+            journal.refresh();
+        } catch (IOException e) {
+            logger.error(e);
+        }
+    }
+
+    /**
+     * Method that reads a config from the journal, if blank a default instance is generated
+     * @param configuration to load
+     * @param type of the model to load the config as
+     * @param json of the config in the journal, or null if it has no record
+     * @return the loaded config, or null if the journal could not be read
+     */
+    private Object loadJournaled(Configuration configuration, Class<?> type, String json) {
+        long start = System.nanoTime();
+        try {
+            Object config = json == null
+                    ? loadDefault(type)
+                    : loadInstance(() -> ConfigLoader.jsonCodec.read(new StringReader(json), type), type, ConfigJournal.FILE_NAME);
+            listeners.configPhaseFinished(configuration.name(), Phase.DESERIALIZE, System.nanoTime() - start);
+            Sections.bind(config, directory, configuration);
+            return config;
+        } catch (IOException e) {
+            listeners.failed(configuration.name(), Phase.READ, e);
+            logger.error(e);
+            return null;
+        } catch (RuntimeException e) {
+            listeners.failed(configuration.name(), Phase.DESERIALIZE, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Method that throws every failure of a phase together. A single failure
+     * is rethrown as it is, several are suppressed by one {@link RuntimeException}
+     * @param failures that occurred, nothing is thrown if empty
+     * @param phase that failed, such as load
+     */
+    private static void throwFailures(List<Throwable> failures, String phase) {
+        if (failures.isEmpty())
+            return;
+        if (failures.size() == 1) {
+            Throwable failure = failures.get(0);
+            if (failure instanceof RuntimeException)
+                throw (RuntimeException) failure;
+            if (failure instanceof Error)
+                throw (Error) failure;
+        }
+
+        RuntimeException exception = new RuntimeException(failures.size() + " configurations failed to " + phase);
+        failures.forEach(exception::addSuppressed);
+        throw exception;
+    }
+
+    /**
+     * Method that creates the executor used for parallel loading when one
+     * has not been chosen. Uses a virtual thread per task when the jre
+     * supports them, otherwise a bounded pool of daemon threads
+     * @param tasks number of configs that will be loaded
+     * @return executor that must be shutdown after loading
+     */
+    private static ExecutorService defaultExecutor(int tasks) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ignored) { }
+
+        AtomicInteger count = new AtomicInteger();
+        int threads = Math.max(1, Math.min(tasks, Runtime.getRuntime().availableProcessors() * 2));
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Config Loader " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * --- Distribute Phase ---
+     * Method that distributes the loaded/generated configs to their relevant
+     * fields, using the setters created during the classpath scan. Inaccessible
+     * fields are assigned without changing their accessibility. Only the set
+     * of {@link ConfigLoader} assigns the fields
+     */
+    private void distribute() {
+        if (!distributes)
+            return;
+        logger.info("Distributing...");
+        distribute(configuration -> true);
+    }
+
+    /**
+     * Method that distributes the matching configs to their relevant fields
+     * @param filter of the resources whose fields should be assigned
+     */
+    private void distribute(Predicate<Configuration> filter) {
+        if (!distributes)
+            return;
+        long start = System.nanoTime();
+        data.forEach((field, configuration) -> {
+            if (!filter.test(configuration))
+                return;
+            MethodHandle setter = scan.getSetter(field);
+            if (setter == null)
+                return;
+            Object config = field.getType() == LazyConfiguration.class
+                    ? holders.get(configuration)
+                    : configs.get(configuration);
+            try {
+                setter.invokeExact(config);
+            } catch (Throwable e) {
+                RuntimeException failure = new RuntimeException("Unable to assign '@Configuration' field '" + field.getName() + "'", e);
+                listeners.failed(configuration.name(), Phase.DISTRIBUTE, failure);
+                throw failure;
+            }
+            if (logger.isDebugEnabled())
+                logger.debug(" - Assigned resource called '{}' to field '{}' in '{}'",
+                        configuration.name(), field.getName(), field.getDeclaringClass().getName());
+        });
+        listeners.phaseFinished(Phase.DISTRIBUTE, System.nanoTime() - start);
+    }
+
+    /**
+     * Method that will create an instance of an object based of a class
+     * @param objClass to create an object from
+     * @param <T> object type to create
+     * @return object based of the class given
+     */
+    private <T> T createInstance(Class<T> objClass) {
+        try {
+            T t = objClass.newInstance();
+            if (t != null)
+                logger.debug(" - Generated resource: {}", objClass.getName());
+            return t;
+        } catch (InstantiationException e) {
+            throw new RuntimeException("Cannot create new instance of configuration model:\n\t'" +
+                    objClass.getName() + "',\n\tbecause of: '" + e.getClass().getName() + "'"
+            );
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Cannot create new instance of configuration model '" +
+                    objClass.getSimpleName() + "', because:\n" + e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Method that will load an instance of an object
+     * from a config file, in the format the file was saved in
+     * @param in stream of the config file, must support mark
+     * @param configuration annotation with property data
+     * @param objClass class to be created from the file
+     * @param source of the file, used to report errors
+     * @param <T> object loaded from the file
+     * @return object based of the file
+     */
+    private <T> T loadInstance(InputStream in, Configuration configuration, Class<T> objClass, String source) {
+        return loadInstance(() -> ConfigLoader.codec(Format.detect(in)).read(in, objClass, configuration), objClass, source);
+    }
+
+    /**
+     * Method that reads a config, handling a failure as set by {@link ConfigurationModel#onError()}
+     * @param reader that reads the config
+     * @param objClass of the config model
+     * @param source the config was read from, for the error message
+     * @param <T> type of the model
+     * @return the config
+     */
+    private <T> T loadInstance(Callable<Object> reader, Class<T> objClass, String source) {
+        T obj = null;
+        String cause = "no object was found";
+        try {
+            obj = objClass.cast(reader.call());
+        } catch (Exception e) {
+            cause = e.getClass().getName() + ": " + e.getMessage();
+        }
+        if (obj == null)
+            switch (objClass.getAnnotation(ConfigurationModel.class).onError()) {
+                case CREATE_DEFAULT_CONFIGURATION:
+                    return loadDefault(objClass.getAnnotation(ConfigurationModel.class).defaultResource(), objClass);
+                case THROW_EXCEPTION:
+                    throw new RuntimeException("Could not load instance of '" + objClass.getName()
+                            + "' from: " + source + ", because: " + cause);
+            }
+
+        logger.debug(" - Loaded resource: {}", objClass.getName());
+        return obj;
+    }
+
+    /**
+     * Method that generates a default instance of a model, from its
+     * {@link ConfigurationModel#defaultResource()} if it has one
+     * @param objClass of the config model
+     * @param <T> type of the model
+     * @return the default instance
+     */
+    private <T> T loadDefault(Class<T> objClass) {
+        String resource = objClass.getAnnotation(ConfigurationModel.class).defaultResource();
+        return resource.equals("") ? createInstance(objClass) : loadDefault(resource, objClass);
+    }
+
+    private <T> T loadDefault(String resource, Class<T> objClass) {
+        T obj = null;
+        if (!resource.equals("")) {
+            try {
+                InputStream resourceStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
+                if (resourceStream != null)
+                    try (Reader buff = new BufferedReader(new InputStreamReader(resourceStream))) {
+                        obj = objClass.cast(ConfigLoader.jsonCodec.read(buff, objClass));
+                    }
+            } catch (Exception ignored) { }
+        }
+        if (obj == null)
+            switch (objClass.getAnnotation(ConfigurationModel.class).onError()) {
+                case CREATE_DEFAULT_CONFIGURATION:
+                    return createInstance(objClass);
+                case THROW_EXCEPTION:
+                    throw new RuntimeException("Could not load default instance of '" + objClass.getName() + "', at resource: " + resource);
+            }
+
+        logger.debug(" - Loaded default resource: {}", objClass.getName());
+        return obj;
+    }
+
+    /**
+     * Method used by {@link ConfigLoader} to change the directory of its set
+     * @param directory to store the configs
+     */
+    synchronized void chooseDirectory(File directory) {
+        if (loaded)
+            throw new RuntimeException("Cannot set the config directory after the loader has already loaded.");
+
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    /**
+     * Method to get the directory the config files of the set are stored in
+     * @return the config directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Method to turn parallel loading on or off. When on, the config files
+     * are read and deserialized concurrently
+     * @param parallel true to load configs concurrently
+     * @see ConfigLoader#useParallelLoading(boolean)
+     */
+    public void useParallelLoading(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Method to turn parallel 'init' methods on or off
+     * @param parallelInit true to call 'init' methods concurrently
+     * @see ConfigLoader#useParallelInit(boolean)
+     */
+    public void useParallelInit(boolean parallelInit) {
+        this.parallelInit = parallelInit;
+    }
+
+    /**
+     * Method to turn reloading in place on or off
+     * @param inPlace true to merge reloaded configs into the instances they replace
+     * @see ConfigLoader#useInPlaceReload(boolean)
+     */
+    public void useInPlaceReload(boolean inPlace) {
+        this.inPlaceReload = inPlace;
+    }
+
+    /**
+     * Method to turn the journal on or off, must be chosen before the set is loaded
+     * @param journal true to store the configs in a journal rather than a file each
+     * @see ConfigLoader#useJournal(boolean)
+     */
+    public synchronized void useJournal(boolean journal) {
+        if (loaded)
+            throw new RuntimeException("Cannot change how configurations are stored after they have been loaded");
+
+        this.journaled = journal;
+    }
+
+    /**
+     * Method to choose the length the journal may grow to before it is compacted,
+     * must be chosen before the set is loaded. Defaults to 4MB
+     * @param bytes length of the journal that starts a compaction
+     * @see ConfigLoader#useJournal(boolean)
+     */
+    public synchronized void chooseCompactionThreshold(long bytes) {
+        if (loaded)
+            throw new RuntimeException("Cannot change how configurations are stored after they have been loaded");
+
+        this.compactionThreshold = bytes;
+    }
+
+    /**
+     * Method to choose the executor used for parallel loading and parallel
+     * 'init' methods. Use null to reset to the default
+     * @param executor to read and deserialize configs with
+     * @see ConfigLoader#chooseLoadExecutor(Executor)
+     */
+    public void chooseLoadExecutor(Executor executor) {
+        this.loadExecutor = executor;
+    }
+
+    /**
+     * Method to add a listener told about the loading and saving of the set
+     * @param listener to add
+     * @see ConfigLoader#addListener(LoaderListener)
+     */
+    public void addListener(LoaderListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Method to remove a listener
+     * @param listener to remove
+     */
+    public void removeListener(LoaderListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Method to see if the set has loaded or not
+     * @return boolean on whether the set has already been loaded
+     */
+    public boolean hasLoaded() {
+        return loaded;
+    }
+}
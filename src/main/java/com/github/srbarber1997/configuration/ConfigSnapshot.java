@@ -0,0 +1,79 @@
+package com.github.srbarber1997.configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of every config loaded by a single load or reload.
+ * A new snapshot is built once all of the configs of a reload have been
+ * read and initiated, then published in a single step, so configs read
+ * from the same snapshot always come from the same generation.
+ * The config instances themselves are not copied
+ * @see ConfigLoader#snapshot()
+ */
+public final class ConfigSnapshot {
+
+    /**
+     * Snapshot published before the configs have been loaded
+     */
+    static final ConfigSnapshot EMPTY = new ConfigSnapshot(0, Collections.emptyMap());
+
+    private final long generation;
+    private final Map<String, Object> configs;
+
+    private ConfigSnapshot(long generation, Map<String, Object> configs) {
+        this.generation = generation;
+        this.configs = configs;
+    }
+
+    /**
+     * Method that creates the snapshot following this one
+     * @param configs loaded configs, copied into the new snapshot
+     * @return snapshot of the next generation
+     */
+    ConfigSnapshot next(Map<Configuration, Object> configs) {
+        Map<String, Object> named = new LinkedHashMap<>();
+        configs.forEach((configuration, config) -> named.put(configuration.name(), config));
+        return new ConfigSnapshot(generation + 1, Collections.unmodifiableMap(named));
+    }
+
+    /**
+     * Method to get the generation of the snapshot, which increases
+     * every time the configs are loaded or reloaded
+     * @return the generation, 0 before the configs have been loaded
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Method to get a config from the snapshot
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @param type of the config's model
+     * @param <T> type of the config's model
+     * @return the config, or null if there is no config with the name
+     * @throws ClassCastException if the config is not of the type
+     */
+    public <T> T get(String name, Class<T> type) {
+        return type.cast(configs.get(name));
+    }
+
+    /**
+     * Method to check if the snapshot has a config
+     * @param name of the config, as given by {@link Configuration#name()}
+     * @return true if the snapshot has a config with the name
+     */
+    public boolean contains(String name) {
+        return configs.containsKey(name);
+    }
+
+    /**
+     * Method to get the names of the configs in the snapshot
+     * @return unmodifiable set of the config names
+     */
+    public Set<String> getNames() {
+        return configs.keySet();
+    }
+}
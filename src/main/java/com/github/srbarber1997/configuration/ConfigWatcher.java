@@ -0,0 +1,124 @@
+package com.github.srbarber1997.configuration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the config directory for config files that are changed outside of
+ * the loader. Bursts of events, like an editor saving a file in several steps,
+ * are coalesced until no event has been seen for the debounce time. The names
+ * of the changed configs are then passed on together
+ * @see ConfigLoader#startWatching()
+ */
+class ConfigWatcher implements Closeable {
+
+    private static final String EXTENSION = ".config";
+
+    private final Path root;
+    private final WatchService service;
+    private final long debounce;
+    private final Consumer<Set<String>> onChange;
+    private final Logger logger;
+    private final Thread thread;
+
+    /**
+     * Constructor that registers the directories and starts watching them
+     * on a daemon thread
+     * @param root config directory, names are relative to this directory
+     * @param directories to watch, the root and any directory holding configs
+     * @param debounce time without events before the changes are passed on
+     * @param unit of the debounce time
+     * @param onChange called with the names of the changed configs,
+     *                 or null if events were lost and every config may have changed
+     * @param logger to report errors to
+     * @throws IOException if a directory could not be watched
+     */
+    ConfigWatcher(Path root, Collection<Path> directories, long debounce, TimeUnit unit,
+                  Consumer<Set<String>> onChange, Logger logger) throws IOException {
+        this.root = root;
+        this.service = root.getFileSystem().newWatchService();
+        this.debounce = unit.toMillis(debounce);
+        this.onChange = onChange;
+        this.logger = logger;
+
+        try {
+            for (Path directory : directories)
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+
+        thread = new Thread(this::run, "Config Loader Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<String> changed = new HashSet<>();
+                boolean overflow = collect(service.take(), changed);
+
+                // Coalesce the burst of events until the directory has been quiet for the debounce time
+                WatchKey key;
+                while ((key = service.poll(debounce, TimeUnit.MILLISECONDS)) != null)
+                    overflow |= collect(key, changed);
+
+                if (!overflow && changed.isEmpty())
+                    continue;
+                try {
+                    onChange.accept(overflow ? null : changed);
+                } catch (RuntimeException e) {
+                    logger.error(e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) { }
+    }
+
+    /**
+     * Method that adds the config names of the events of a key to the changed set
+     * @param key that has been signalled
+     * @param changed names of the changed configs
+     * @return true if events have been lost
+     */
+    private boolean collect(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+
+            Path file = directory.resolve((Path) event.context());
+            if (!file.getFileName().toString().endsWith(EXTENSION))
+                continue;
+            String name = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+            changed.add(name.substring(0, name.length() - EXTENSION.length()));
+        }
+        key.reset();
+        return overflow;
+    }
+
+    /**
+     * Method that stops watching the directories
+     * @throws IOException if the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        service.close();
+        thread.interrupt();
+    }
+}
@@ -6,6 +6,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.zip.Deflater;
 
 /**
  * Annotation that specifies a field as a configuration. The field
@@ -31,7 +32,7 @@ public @interface Configuration {
      *
      *
      * Names that use forward slashes will make a directory
-     * in the root {{@link ConfigLoader#directory}.
+     * in the root {{@link ConfigSet#getDirectory()}.
      *
      * For example, a name like:
      * "myConfig" will create a config file called "myConfig.config"
@@ -55,4 +56,53 @@ public @interface Configuration {
      * be readable to a viewer of the config file
      */
     boolean readable() default true;
+
+    /**
+     * Durability property of the configuration. This property
+     * indicates to the loader how far the config file should be
+     * forced to the disk when it is saved. Trades the time taken
+     * to save for safety when the machine loses power.
+     * This property is optional and will default to {@link Durability#NONE}
+     * @return durability of the saved config file
+     */
+    Durability durability() default Durability.NONE;
+
+    /**
+     * Format property of the configuration. This property
+     * indicates to the loader which format the config file
+     * should be saved in. A config file is always read in the
+     * format it was saved in, so it is converted on the next save.
+     * This property is optional and will default to {@link Format#JSON}
+     * @return format of the saved config file
+     */
+    Format format() default Format.JSON;
+
+    /**
+     * Compression property of the configuration. This property
+     * indicates to the loader how the config file should be
+     * compressed when it is saved. A config file is always read with
+     * the compression it was saved with, so it is compressed on the next save.
+     * This property is optional and will default to {@link Compression#NONE}
+     * @return compression of the saved config file
+     */
+    Compression compression() default Compression.NONE;
+
+    /**
+     * Compression level property of the configuration. This property
+     * indicates to the loader how hard to compress the config file,
+     * from 1, the fastest, to 9, the smallest. Only used with a {@link #compression()}.
+     * This property is optional and will default to {@link Deflater#DEFAULT_COMPRESSION}
+     * @return level of compression of the saved config file
+     */
+    int compressionLevel() default Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Lazy property of the configuration. This property indicates
+     * to the loader that the config file should not be read, and the
+     * 'init' method not called, until the config is first used.
+     * The field must be a {@link LazyConfiguration} of the model.
+     * This property is optional and will default to false
+     * @return boolean saying if the config is loaded on first use
+     */
+    boolean lazy() default false;
 }
@@ -0,0 +1,108 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.processor.ConfigurationIndexProcessor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The models and fields listed in the compile time index written by
+ * {@link ConfigurationIndexProcessor}. Every index on the classpath is merged
+ * into one, entries that no longer resolve to a class or field are skipped.
+ * @see ConfigurationIndex#read(ClassLoader, Logger)
+ */
+class ConfigurationIndex {
+
+    private final Set<Class<?>> models = new HashSet<>();
+    private final Set<Field> fields = new HashSet<>();
+
+    private ConfigurationIndex() { }
+
+    /**
+     * Method that reads every index found on the classpath of the given loader
+     * @param classLoader to find the index resources and resolve the entries with
+     * @param logger to report stale entries to
+     * @return the merged index, or null if no index is present on the classpath
+     */
+    static ConfigurationIndex read(ClassLoader classLoader, Logger logger) {
+        Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(ConfigurationIndexProcessor.INDEX_LOCATION);
+        } catch (IOException e) {
+            logger.error(e);
+            return null;
+        }
+        if (!resources.hasMoreElements())
+            return null;
+
+        ConfigurationIndex index = new ConfigurationIndex();
+        for (URL resource : Collections.list(resources)) {
+            try (Reader reader = new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)) {
+                index.addAll(reader, classLoader, logger);
+            } catch (IOException e) {
+                logger.error(e);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Method that reads an index in the format written by {@link ConfigurationIndexProcessor}
+     * @param reader of the index, not closed
+     * @param classLoader to resolve the entries with
+     * @param logger to report stale entries to
+     * @return the index read
+     * @throws IOException if the index could not be read
+     */
+    static ConfigurationIndex read(Reader reader, ClassLoader classLoader, Logger logger) throws IOException {
+        ConfigurationIndex index = new ConfigurationIndex();
+        index.addAll(reader, classLoader, logger);
+        return index;
+    }
+
+    private void addAll(Reader reader, ClassLoader classLoader, Logger logger) throws IOException {
+        BufferedReader buff = new BufferedReader(reader);
+        String line;
+        while ((line = buff.readLine()) != null)
+            add(line.trim(), classLoader, logger);
+    }
+
+    private void add(String line, ClassLoader classLoader, Logger logger) {
+        try {
+            if (line.startsWith(ConfigurationIndexProcessor.MODEL)) {
+                String model = line.substring(ConfigurationIndexProcessor.MODEL.length());
+                models.add(Class.forName(model, false, classLoader));
+            } else if (line.startsWith(ConfigurationIndexProcessor.FIELD)) {
+                String field = line.substring(ConfigurationIndexProcessor.FIELD.length());
+                int split = field.lastIndexOf('#');
+                fields.add(Class.forName(field.substring(0, split), false, classLoader)
+                        .getDeclaredField(field.substring(split + 1)));
+            }
+        } catch (ClassNotFoundException | NoSuchFieldException | LinkageError e) {
+            logger.warn(" - Skipping stale configuration index entry '{}'", line);
+        }
+    }
+
+    /**
+     * @return types annotated with {@link ConfigurationModel}
+     */
+    Set<Class<?>> getModels() {
+        return models;
+    }
+
+    /**
+     * @return fields annotated with {@link Configuration}
+     */
+    Set<Field> getFields() {
+        return fields;
+    }
+}
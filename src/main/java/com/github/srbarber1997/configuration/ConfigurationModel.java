@@ -17,7 +17,7 @@ import java.lang.annotation.Target;
  *  - Any values set in the constructor may not be
  *  used, use the 'init' method instead
  *
- * @see ConfigLoader#configure()
+ * @see ConfigSet#configure()
  */
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
 @Retention(RetentionPolicy.RUNTIME)
@@ -27,7 +27,7 @@ public @interface ConfigurationModel {
     /**
      * Location of the resource that should be used to instantiate
      * a default instance of this model. Only if no config file is found
-     * in the {@link ConfigLoader#directory}
+     * in the {@link ConfigSet#getDirectory()}
      * @see ClassLoader#getResourceAsStream(String)
      * @return string of the resource as an absolute reference
      */
@@ -52,4 +52,20 @@ public @interface ConfigurationModel {
      * | false |  Yes |   No   |
      */
     boolean initOnReload() default true;
+
+    /**
+     * Names of the configs, as given by {@link Configuration#name()}, whose
+     * 'init' methods must finish before the 'init' method of this model is called
+     * @return names of the configs this model's 'init' method depends on
+     */
+    String[] initDependsOn() default {};
+
+    /**
+     * Longest time in milliseconds the 'init' method of this model may take
+     * when 'init' methods are called in parallel, 0 for no limit. An 'init'
+     * method that takes longer is interrupted and the load fails
+     * @return timeout of the 'init' method in milliseconds
+     * @see ConfigLoader#useParallelInit(boolean)
+     */
+    long initTimeout() default 0;
 }
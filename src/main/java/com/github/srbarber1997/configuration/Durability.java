@@ -0,0 +1,24 @@
+package com.github.srbarber1997.configuration;
+
+/**
+ * How far a config file is forced to the disk when it is saved. Config
+ * files are always written to a temporary file and then renamed, so a
+ * crash never leaves a partly written config behind. Higher levels also
+ * survive power loss, at the cost of a slower save
+ * @see Configuration#durability()
+ */
+public enum Durability {
+    /**
+     * The file is left for the operating system to write back
+     */
+    NONE(),
+    /**
+     * The contents of the file are forced to the disk before it is renamed
+     */
+    FSYNC_FILE(),
+    /**
+     * As {@link #FSYNC_FILE}, then the directory is forced to the disk
+     * after the rename so the new name is durable too
+     */
+    FSYNC_DIRECTORY()
+}
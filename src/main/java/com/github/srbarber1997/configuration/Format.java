@@ -0,0 +1,69 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.codec.BinaryCodec;
+import com.github.srbarber1997.configuration.codec.ConfigurationCodec;
+import com.github.srbarber1997.configuration.codec.JsonCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The format a config file is stored in. Files are read in the format
+ * they were written in, so the format of a config can be changed and
+ * its file is converted the next time it is saved
+ * @see Configuration#format()
+ * @see ConfigLoader#chooseCodec(Format, ConfigurationCodec)
+ * @see FormatConverter
+ */
+public enum Format {
+    /**
+     * Json text, readable by a user unless {@link Configuration#readable()} is false
+     * @see JsonCodec
+     */
+    JSON(new byte[0]),
+    /**
+     * A compact binary encoding of the json, faster to load for large configs
+     * @see BinaryCodec
+     */
+    BINARY(new byte[] { 0, 'C', 'F', 'G', 1 });
+
+    /**
+     * Bytes that a file of this format starts with
+     */
+    private final byte[] header;
+
+    Format(byte[] header) {
+        this.header = header;
+    }
+
+    /**
+     * Method that writes the header of this format
+     * @param out stream of the file
+     * @throws IOException if the header could not be written
+     */
+    void writeHeader(OutputStream out) throws IOException {
+        out.write(header);
+    }
+
+    /**
+     * Method that finds the format of a file from its header. The stream
+     * is left after the header, or at the start if the format has none
+     * @param in stream of the file, must support mark
+     * @return the format of the file
+     * @throws IOException if the file could not be read
+     */
+    static Format detect(InputStream in) throws IOException {
+        byte[] start = new byte[BINARY.header.length];
+        in.mark(start.length);
+        int read = 0, n;
+        while (read < start.length && (n = in.read(start, read, start.length - read)) != -1)
+            read += n;
+        if (read == start.length && Arrays.equals(start, BINARY.header))
+            return BINARY;
+
+        in.reset();
+        return JSON;
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.codec.BinaryCodec;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+/**
+ * Utility that converts existing config files between {@link Format}s without
+ * loading their models. The loader reads a file in the format it was saved in,
+ * so converting is not required, but it lets large configs be migrated ahead
+ * of time. Can be run from the command line:
+ * {@code java com.github.srbarber1997.configuration.FormatConverter <file or directory> <JSON|BINARY> [unreadable]}
+ * @see Configuration#format()
+ */
+public class FormatConverter {
+
+    private FormatConverter() { }
+
+    /**
+     * Method that converts a config file to a format. Files that are empty
+     * or already in the format are left as they are, compressed files stay compressed
+     * @param file config file to convert
+     * @param format to convert the file to
+     * @param readable false if the json of the file is, or should be, scrambled
+     *                 as with {@link Configuration#readable()}
+     * @return true if the file was converted
+     * @throws IOException if the file could not be read or written
+     */
+    public static boolean convert(File file, Format format, boolean readable) throws IOException {
+        if (file.length() == 0)
+            return false;
+
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(file))) {
+            Compression compression = Compression.detect(raw);
+            InputStream in = compression.decompress(raw);
+            Format current = Format.detect(in);
+            if (current == format)
+                return false;
+
+            JsonReader reader;
+            if (current == Format.BINARY)
+                reader = BinaryCodec.newReader(in);
+            else {
+                Reader text = new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()));
+                if (!readable)
+                    text = ConfigLoader.service.unscramblingReader(text);
+                reader = new JsonReader(text);
+                reader.setLenient(true);
+            }
+
+            // The file keeps its compression, it is streamed to the file replacing it
+            AtomicFileWriter.write(file, Durability.NONE, out -> compression.compress(out, Deflater.DEFAULT_COMPRESSION, compressed -> {
+                format.writeHeader(compressed);
+                JsonWriter writer;
+                if (format == Format.BINARY)
+                    writer = BinaryCodec.newWriter(compressed);
+                else {
+                    Writer text = new BufferedWriter(new OutputStreamWriter(compressed, Charset.defaultCharset().newEncoder()
+                            .onMalformedInput(CodingErrorAction.REPLACE)
+                            .onUnmappableCharacter(CodingErrorAction.REPLACE)));
+                    if (!readable)
+                        text = ConfigLoader.service.scramblingWriter(text);
+                    writer = new JsonWriter(text);
+                    writer.setLenient(true);
+                }
+                BinaryCodec.copy(reader, writer);
+                writer.flush();
+            }));
+        }
+        return true;
+    }
+
+    /**
+     * Method that converts every config file in a directory and its sub directories
+     * @param directory config directory
+     * @param format to convert the files to
+     * @param readable false if the json of the files is, or should be, scrambled
+     * @return number of files converted
+     * @throws IOException if a file could not be read or written
+     */
+    public static int convertDirectory(File directory, Format format, boolean readable) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory.toPath())) {
+            files = walk.filter(path -> path.getFileName().toString().endsWith(".config"))
+                    .filter(Files::isRegularFile)
+                    .collect(Collectors.toList());
+        }
+
+        int converted = 0;
+        for (Path path : files)
+            if (convert(path.toFile(), format, readable))
+                converted++;
+        return converted;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: FormatConverter <file or directory> <JSON|BINARY> [unreadable]");
+            System.exit(1);
+        }
+
+        File target = new File(args[0]);
+        Format format = Format.valueOf(args[1].toUpperCase());
+        boolean readable = args.length < 3 || !args[2].equalsIgnoreCase("unreadable");
+        int converted = target.isDirectory()
+                ? convertDirectory(target, format, readable)
+                : convert(target, format, readable) ? 1 : 0;
+        System.out.println("Converted " + converted + " config file(s) to " + format);
+    }
+}
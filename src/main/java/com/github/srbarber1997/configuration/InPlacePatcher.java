@@ -0,0 +1,192 @@
+package com.github.srbarber1997.configuration;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Merges a newly loaded config into the instance it replaces, so references
+ * to the instance, and to the objects and collections within it, stay valid.
+ * Fields are compared one at a time, only those that differ are replaced.
+ * Nested objects of the same class are merged the same way, lists are merged
+ * element by element, sets and maps are updated to hold the new entries.
+ * A value that cannot be merged, such as an unmodifiable collection, an
+ * object of another class or an object extending a jre class, is replaced by
+ * the new value. Each change is recorded, so a merge that fails part way is
+ * undone and the value replaced instead, a merge is applied whole or not at all
+ * @see ConfigLoader#useInPlaceReload(boolean)
+ */
+class InPlacePatcher {
+
+    /**
+     * Objects already merged, so objects that reference each other are merged once
+     */
+    private final Map<Object, Object> visited = new IdentityHashMap<>();
+
+    /**
+     * Actions that undo each change made so far, the latest last
+     */
+    private final List<Runnable> undo = new ArrayList<>();
+
+    private InPlacePatcher() { }
+
+    /**
+     * Method that merges a config into the instance it replaces
+     * @param target instance to merge into
+     * @param source newly loaded instance, not used afterwards
+     * @return the target if it was merged into, otherwise the source
+     */
+    static Object patch(Object target, Object source) {
+        InPlacePatcher patcher = new InPlacePatcher();
+        try {
+            return patcher.merge(target, source);
+        } catch (RuntimeException e) {
+            patcher.rollback(0);
+            return source;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object merge(Object target, Object source) {
+        // A sectioned map is bound to its files as loaded, so is replaced
+        if (target == null || source == null || target.getClass() != source.getClass() || target instanceof SectionedMap)
+            return source;
+        if (target == source)
+            return target;
+        if (isValue(target.getClass()))
+            return target.equals(source) ? target : source;
+        if (visited.containsKey(target))
+            return visited.get(target);
+        visited.put(target, target);
+
+        int mark = undo.size();
+        try {
+            if (target instanceof List)
+                mergeList((List<Object>) target, (List<Object>) source);
+            else if (target instanceof Set)
+                mergeSet((Set<Object>) target, (Set<Object>) source);
+            else if (target instanceof Map)
+                mergeMap((Map<Object, Object>) target, (Map<Object, Object>) source);
+            else
+                mergeFields(target, source);
+        } catch (RuntimeException | IllegalAccessException e) {
+            // Also catches InaccessibleObjectException, thrown on newer jres
+            rollback(mark);
+            visited.put(target, source);
+            return source;
+        }
+        return target;
+    }
+
+    /**
+     * Method that undoes the changes made since a mark
+     * @param mark number of changes to keep
+     */
+    private void rollback(int mark) {
+        for (int i = undo.size() - 1; i >= mark; i--) {
+            try {
+                undo.remove(i).run();
+            } catch (RuntimeException ignored) {
+                // The change could not be undone, the value is replaced anyway
+            }
+        }
+    }
+
+    /**
+     * @return true if instances of the class are compared with equals rather than merged
+     */
+    private static boolean isValue(Class<?> type) {
+        if (type.isPrimitive() || type.isEnum() || type.isArray())
+            return true;
+        if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))
+            return false;
+        // The fields of jre classes are not merged, they may not be accessible
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+            if (isJre(c))
+                return true;
+        return false;
+    }
+
+    private static boolean isJre(Class<?> type) {
+        return type.getName().startsWith("java.") || type.getName().startsWith("javax.");
+    }
+
+    private void mergeList(List<Object> target, List<Object> source) {
+        List<Object> before = new ArrayList<>(target);
+        undo.add(() -> {
+            // Set back element by element where the size is unchanged, the list may not allow resizing
+            if (target.size() == before.size()) {
+                for (int i = 0; i < before.size(); i++)
+                    target.set(i, before.get(i));
+            } else {
+                target.clear();
+                target.addAll(before);
+            }
+        });
+
+        int common = Math.min(target.size(), source.size());
+        for (int i = 0; i < common; i++) {
+            Object current = target.get(i);
+            Object merged = merge(current, source.get(i));
+            if (merged != current)
+                target.set(i, merged);
+        }
+        if (target.size() > source.size())
+            target.subList(source.size(), target.size()).clear();
+        else if (source.size() > target.size())
+            target.addAll(source.subList(target.size(), source.size()));
+    }
+
+    private void mergeSet(Set<Object> target, Set<Object> source) {
+        if (target.equals(source))
+            return;
+        Set<Object> before = new LinkedHashSet<>(target);
+        undo.add(() -> {
+            target.clear();
+            target.addAll(before);
+        });
+        target.retainAll(source);
+        target.addAll(source);
+    }
+
+    private void mergeMap(Map<Object, Object> target, Map<Object, Object> source) {
+        Map<Object, Object> before = new LinkedHashMap<>(target);
+        undo.add(() -> {
+            target.clear();
+            target.putAll(before);
+        });
+
+        target.keySet().retainAll(source.keySet());
+        for (Map.Entry<Object, Object> entry : source.entrySet()) {
+            Object current = target.get(entry.getKey());
+            Object merged = merge(current, entry.getValue());
+            if (merged != current || !target.containsKey(entry.getKey()))
+                target.put(entry.getKey(), merged);
+        }
+    }
+
+    private void mergeFields(Object target, Object source) throws IllegalAccessException {
+        for (Class<?> type = target.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                // Gson does not read transient fields, they hold state derived in 'init' which is kept
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                        || field.isSynthetic())
+                    continue;
+
+                field.setAccessible(true);
+                Object current = field.get(target);
+                Object merged = merge(current, field.get(source));
+                if (merged != current) {
+                    field.set(target, merged);
+                    undo.add(() -> {
+                        try {
+                            field.set(target, current);
+                        } catch (IllegalAccessException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.metrics.LoaderListener;
+import com.github.srbarber1997.configuration.metrics.Phase;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Calls the 'init' methods of configs in the order set by their
+ * {@link ConfigurationModel#initDependsOn()}. An 'init' method is only called
+ * once the 'init' methods of the configs it depends on have finished. When
+ * given an executor, 'init' methods that do not depend on each other are
+ * called concurrently and {@link ConfigurationModel#initTimeout()} is applied
+ * @see ConfigLoader#useParallelInit(boolean)
+ */
+class InitRunner {
+
+    private final Logger logger;
+    private final LoaderListener listener;
+
+    InitRunner(Logger logger, LoaderListener listener) {
+        this.logger = logger;
+        this.listener = listener;
+    }
+
+    /**
+     * A config waiting for its 'init' method to be called
+     */
+    static class Init {
+        private final String name;
+        private final Set<String> dependsOn;
+        private final long timeout;
+        private final Runnable init;
+
+        /**
+         * @param name of the config
+         * @param dependsOn names of the configs that must be initiated first
+         * @param timeout in milliseconds, 0 or less for no timeout
+         * @param init calls the 'init' method of the config
+         */
+        Init(String name, Set<String> dependsOn, long timeout, Runnable init) {
+            this.name = name;
+            this.dependsOn = dependsOn;
+            this.timeout = timeout;
+            this.init = init;
+        }
+    }
+
+    /**
+     * Method that orders the inits so each comes after those it depends on.
+     * Inits that do not depend on each other keep their given order
+     * @param inits to order, dependencies on names that are not given are ignored
+     * @return the inits in order
+     * @throws RuntimeException if the inits depend on each other in a cycle
+     */
+    static List<Init> order(List<Init> inits) {
+        Map<String, Init> byName = new LinkedHashMap<>();
+        inits.forEach(init -> byName.put(init.name, init));
+
+        List<Init> ordered = new ArrayList<>();
+        Set<String> done = new HashSet<>();
+        List<Init> waiting = new ArrayList<>(inits);
+        while (!waiting.isEmpty()) {
+            Init ready = waiting.stream()
+                    .filter(init -> init.dependsOn.stream()
+                            .allMatch(name -> done.contains(name) || !byName.containsKey(name)))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Configurations have 'init' dependencies on each other: "
+                            + waiting.stream().map(init -> init.name).reduce((a, b) -> a + ", " + b).orElse("")));
+            waiting.remove(ready);
+            ordered.add(ready);
+            done.add(ready.name);
+        }
+        return ordered;
+    }
+
+    /**
+     * Method that calls the 'init' methods one at a time on the current thread
+     * @param inits to call
+     */
+    void run(List<Init> inits) {
+        for (Init init : order(inits))
+            call(init);
+    }
+
+    /**
+     * Method that calls the 'init' methods on an executor, each as soon as
+     * the 'init' methods it depends on have finished. Waits until every
+     * 'init' method has finished, failed or timed out. An 'init' method
+     * that times out is interrupted
+     * @param inits to call
+     * @param executor to call the 'init' methods on
+     * @return failures of the 'init' methods, empty if they all succeeded
+     */
+    List<Throwable> run(List<Init> inits, Executor executor) {
+        List<Init> ordered = order(inits);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ScheduledExecutorService timer = ordered.stream().anyMatch(init -> init.timeout > 0)
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "Config Loader Init Timer");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+
+        Map<String, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        try {
+            for (Init init : ordered) {
+                CompletableFuture<Void> result = new CompletableFuture<>();
+                CompletableFuture<?>[] dependencies = init.dependsOn.stream()
+                        .map(results::get)
+                        .filter(Objects::nonNull)
+                        .toArray(CompletableFuture[]::new);
+
+                CompletableFuture.allOf(dependencies).whenComplete((ignored, failure) -> {
+                    if (failure != null)
+                        fail(init, result, new RuntimeException("The 'init' method of '" + init.name
+                                + "' was not called as a configuration it depends on failed to initiate"));
+                    else
+                        try {
+                            executor.execute(() -> callAsync(init, result, timer, classLoader));
+                        } catch (RejectedExecutionException e) {
+                            result.completeExceptionally(e);
+                        }
+                });
+                results.put(init.name, result);
+            }
+
+            List<Throwable> failures = new ArrayList<>();
+            results.values().forEach(result -> {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failures.add(e);
+                }
+            });
+            return failures;
+        } finally {
+            if (timer != null)
+                timer.shutdownNow();
+        }
+    }
+
+    private void callAsync(Init init, CompletableFuture<Void> result, ScheduledExecutorService timer, ClassLoader classLoader) {
+        Thread thread = Thread.currentThread();
+        AtomicReference<Thread> running = new AtomicReference<>(thread);
+        ScheduledFuture<?> timeout = null;
+        if (timer != null && init.timeout > 0)
+            timeout = timer.schedule(() -> {
+                synchronized (running) {
+                    if (running.get() != null && fail(init, result, new RuntimeException("The 'init' method of '"
+                            + init.name + "' did not finish within " + init.timeout + " ms")))
+                        running.get().interrupt();
+                }
+            }, init.timeout, TimeUnit.MILLISECONDS);
+
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            call(init);
+            result.complete(null);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            synchronized (running) {
+                running.set(null);
+            }
+            if (timeout != null) {
+                timeout.cancel(false);
+                // Clears the interrupt of a timeout so the thread can be reused
+                Thread.interrupted();
+            }
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /**
+     * Method that fails an init that was not called or did not finish, the
+     * failures of 'init' methods themselves are reported by the init
+     * @return true if the init had not already finished
+     */
+    private boolean fail(Init init, CompletableFuture<Void> result, RuntimeException failure) {
+        if (!result.completeExceptionally(failure))
+            return false;
+        listener.failed(init.name, Phase.INIT, failure);
+        return true;
+    }
+
+    private void call(Init init) {
+        long start = System.nanoTime();
+        init.init.run();
+        long nanos = System.nanoTime() - start;
+        listener.configPhaseFinished(init.name, Phase.INIT, nanos);
+        if (logger.isDebugEnabled())
+            logger.debug(" - Initiated resource: {} in {} ms", init.name, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+}
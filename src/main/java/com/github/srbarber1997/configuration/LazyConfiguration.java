@@ -0,0 +1,66 @@
+package com.github.srbarber1997.configuration;
+
+import java.util.function.Supplier;
+
+/**
+ * Holder of a config that is loaded when it is first used. A {@link Configuration}
+ * field of this type is assigned a holder instead of the config, the type argument
+ * must be a {@link ConfigurationModel}. When the configuration is
+ * {@link Configuration#lazy()} the config file is not read, and the 'init'
+ * method is not called, until {@link #get()} is first called.
+ * Only one thread loads the config, others wait for it
+ * <pre>
+ * {@literal @}Configuration(name = "reports", lazy = true)
+ * private static LazyConfiguration&lt;ReportSettings&gt; reports;
+ * </pre>
+ * @param <T> type of the config's model
+ * @see ConfigLoader#reload()
+ */
+public final class LazyConfiguration<T> implements Supplier<T> {
+
+    private final Supplier<T> loader;
+    private volatile T config;
+
+    /**
+     * Constructor used by the loader
+     * @param loader that loads, initiates and registers the config
+     */
+    LazyConfiguration(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Method to get the config, loading it if it has not been loaded yet
+     * @return the config, or null if it could not be loaded
+     */
+    @Override
+    public T get() {
+        T current = config;
+        if (current != null)
+            return current;
+
+        synchronized (this) {
+            if (config == null)
+                config = loader.get();
+            return config;
+        }
+    }
+
+    /**
+     * Method to check if the config has been loaded
+     * @return true if the config has been loaded
+     */
+    public boolean isLoaded() {
+        return config != null;
+    }
+
+    /**
+     * Method used by the loader to set the config once loaded or reloaded
+     * @param config the loaded config, or null to load it again on the next use
+     */
+    synchronized void set(Object config) {
+        @SuppressWarnings("unchecked")
+        T typed = (T) config;
+        this.config = typed;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.metrics.LoaderListener;
+import com.github.srbarber1997.configuration.metrics.Operation;
+import com.github.srbarber1997.configuration.metrics.Phase;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Passes the loader's metrics on to every added {@link LoaderListener}.
+ * A listener that throws is logged so it cannot break loading or saving
+ */
+class Listeners implements LoaderListener {
+
+    private final List<LoaderListener> listeners = new CopyOnWriteArrayList<>();
+    private final Logger logger;
+
+    Listeners(Logger logger) {
+        this.logger = logger;
+    }
+
+    void add(LoaderListener listener) {
+        if (!listeners.contains(listener))
+            listeners.add(listener);
+    }
+
+    void remove(LoaderListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Method to check if any listeners have been added, used to skip
+     * timing each read of a config file when no listener will be told
+     * @return true if there are no listeners
+     */
+    boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    @Override
+    public void operationFinished(Operation operation, long nanos) {
+        forEach(listener -> listener.operationFinished(operation, nanos));
+    }
+
+    @Override
+    public void phaseFinished(Phase phase, long nanos) {
+        forEach(listener -> listener.phaseFinished(phase, nanos));
+    }
+
+    @Override
+    public void configPhaseFinished(String config, Phase phase, long nanos) {
+        forEach(listener -> listener.configPhaseFinished(config, phase, nanos));
+    }
+
+    @Override
+    public void bytesRead(String config, long bytes) {
+        forEach(listener -> listener.bytesRead(config, bytes));
+    }
+
+    @Override
+    public void bytesWritten(String config, long bytes) {
+        forEach(listener -> listener.bytesWritten(config, bytes));
+    }
+
+    @Override
+    public void failed(String config, Phase phase, Throwable error) {
+        forEach(listener -> listener.failed(config, phase, error));
+    }
+
+    private void forEach(Consumer<LoaderListener> event) {
+        for (LoaderListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                logger.error(e);
+            }
+        }
+    }
+}
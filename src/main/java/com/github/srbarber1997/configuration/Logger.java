@@ -1,31 +1,70 @@
 package com.github.srbarber1997.configuration;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Logs the loader's progress through SLF4J, under the name of {@link ConfigLoader}.
+ * Messages are parameterized and only formatted when their level is enabled,
+ * so loading with logging off does not build any strings. The progress of
+ * each phase is logged at info, the progress of each config at debug
+ * @see ConfigLoader#load(boolean)
+ */
 class Logger {
 
-    private static DateTimeFormatter formatter =
-            DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm:ss:SSS");
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(ConfigLoader.class);
 
-    private boolean log = true;
+    private volatile boolean enabled = true;
 
-    public void log(String message) {
-        if (log) System.out.println(
-                "[" + LocalDateTime.now().format(formatter) + "]"
-                + " [Config Loader] " + message);
+    public void info(String message) {
+        if (enabled)
+            log.info(message);
     }
 
-    public void error(Exception e) {
-        if (log)
-            e.printStackTrace();
+    public void info(String format, Object arg) {
+        if (enabled)
+            log.info(format, arg);
     }
 
-    public static void setFormatter(DateTimeFormatter formatter) {
-        Logger.formatter = formatter;
+    public void debug(String format, Object arg) {
+        if (enabled)
+            log.debug(format, arg);
     }
 
-    public void setLog(boolean log) {
-        this.log = log;
+    public void debug(String format, Object arg1, Object arg2) {
+        if (enabled)
+            log.debug(format, arg1, arg2);
+    }
+
+    public void debug(String format, Object... args) {
+        if (enabled)
+            log.debug(format, args);
+    }
+
+    public void warn(String format, Object arg) {
+        if (enabled)
+            log.warn(format, arg);
+    }
+
+    public void error(Throwable e) {
+        if (enabled)
+            log.error(String.valueOf(e.getMessage()), e);
+    }
+
+    /**
+     * Method to check if debug messages will be logged, used to skip
+     * working out the arguments of a message that will not be logged
+     * @return true if debug messages are logged
+     */
+    public boolean isDebugEnabled() {
+        return enabled && log.isDebugEnabled();
+    }
+
+    /**
+     * Method to turn the loader's logging on or off, when off nothing
+     * is logged whatever the level set for the SLF4J logger
+     * @param enabled true to log
+     */
+    public void setLog(boolean enabled) {
+        this.enabled = enabled;
     }
 }
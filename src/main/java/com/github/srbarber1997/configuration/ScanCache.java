@@ -0,0 +1,134 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.processor.ConfigurationIndexProcessor;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * File holding the result of a classpath scan, so a restart of the same build
+ * does not scan the classpath again. The file is written in the format of the
+ * compile time index written by {@link ConfigurationIndexProcessor}, with a
+ * fingerprint of the classpath it was scanned from. The fingerprint covers the
+ * packages scanned and the path, size and last modified time of every jar, and
+ * of every file in every directory, so any change to the classpath causes a rescan
+ * @see ConfigLoader#chooseScanCache(File)
+ */
+class ScanCache {
+
+    /**
+     * Prefix of the line holding the fingerprint, ignored when the entries are read
+     */
+    static final String FINGERPRINT = "fingerprint ";
+
+    private ScanCache() { }
+
+    /**
+     * Method that creates the fingerprint of a classpath
+     * @param packages the scan is limited to
+     * @param urls of the classpath, in the order they are scanned
+     * @return the fingerprint, in hex
+     * @throws IOException if a directory of the classpath could not be listed
+     */
+    static String fingerprint(Collection<String> packages, Collection<URL> urls) throws IOException {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (String scanned : packages)
+            hasher.putString(scanned, StandardCharsets.UTF_8).putChar(';');
+        for (URL url : urls) {
+            hasher.putString(url.toString(), StandardCharsets.UTF_8);
+            File file = toFile(url);
+            if (file == null || !file.exists())
+                continue;
+
+            if (file.isDirectory()) {
+                Path root = file.toPath();
+                List<Path> files;
+                try (Stream<Path> walk = java.nio.file.Files.walk(root)) {
+                    files = walk.filter(java.nio.file.Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+                for (Path path : files) {
+                    hasher.putString(root.relativize(path).toString(), StandardCharsets.UTF_8);
+                    putFile(hasher, path.toFile());
+                }
+            } else
+                putFile(hasher, file);
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putFile(Hasher hasher, File file) {
+        hasher.putLong(file.length()).putLong(file.lastModified());
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol()))
+            return null;
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(url.getPath());
+        }
+    }
+
+    /**
+     * Method that reads the cached scan, if it was scanned from the same classpath
+     * @param cache file of the cached scan
+     * @param fingerprint of the current classpath
+     * @param classLoader to resolve the entries with
+     * @param logger to report failures to
+     * @return the cached scan, or null if there is no cache or it is for another classpath
+     */
+    static ConfigurationIndex read(File cache, String fingerprint, ClassLoader classLoader, Logger logger) {
+        if (!cache.isFile())
+            return null;
+
+        try (BufferedReader reader = Files.newReader(cache, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line == null || !line.equals(FINGERPRINT + fingerprint))
+                return null;
+            return ConfigurationIndex.read(reader, classLoader, logger);
+        } catch (IOException e) {
+            logger.error(e);
+            return null;
+        }
+    }
+
+    /**
+     * Method that writes the result of a scan, replacing any cached scan.
+     * Failures are logged, the next start will scan again
+     * @param cache file to write the scan to
+     * @param fingerprint of the classpath that was scanned
+     * @param models types annotated with {@link ConfigurationModel}
+     * @param fields fields annotated with {@link Configuration}
+     * @param logger to report failures to
+     */
+    static void write(File cache, String fingerprint, Set<Class<?>> models, Set<Field> fields, Logger logger) {
+        try {
+            Files.createParentDirs(cache);
+            AtomicFileWriter.write(cache, Durability.NONE, out -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(FINGERPRINT + fingerprint + "\n");
+                for (Class<?> model : models)
+                    writer.write(ConfigurationIndexProcessor.MODEL + model.getName() + "\n");
+                for (Field field : fields)
+                    writer.write(ConfigurationIndexProcessor.FIELD + field.getDeclaringClass().getName()
+                            + "#" + field.getName() + "\n");
+                writer.flush();
+            });
+        } catch (IOException e) {
+            logger.error(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.*;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the chunk files of a {@link SectionedMap}. A section is a
+ * directory next to the config file, holding an index of the number of
+ * entries in each chunk and a file for each chunk. Chunk files are json
+ * arrays of key and value pairs, written with the compression and
+ * readability of the config
+ * @see Sectioned
+ */
+class SectionStore {
+
+    private static final String INDEX = "index";
+    private static final String CHUNK_SUFFIX = ".chunk";
+
+    private final File directory;
+    private final Configuration configuration;
+    private final Gson gson;
+    private final Type keyType;
+    private final Type valueType;
+
+    /**
+     * @param directory of the section
+     * @param configuration of the config holding the section
+     * @param gson to serialise the entries with
+     * @param keyType type of the keys of the map
+     * @param valueType type of the values of the map
+     */
+    SectionStore(File directory, Configuration configuration, Gson gson, Type keyType, Type valueType) {
+        this.directory = directory;
+        this.configuration = configuration;
+        this.gson = gson;
+        this.keyType = keyType;
+        this.valueType = valueType;
+    }
+
+    /**
+     * Method that finds the chunk holding a key. Keys are placed by a hash
+     * of their json, so the same key is in the same chunk on every run
+     * @param key of an entry
+     * @param chunks number of chunks in the section
+     * @return index of the chunk
+     */
+    int chunkOf(Object key, int chunks) {
+        String json = gson.toJson(key, keyType);
+        return Math.floorMod(Hashing.murmur3_32().hashString(json, StandardCharsets.UTF_8).asInt(), chunks);
+    }
+
+    /**
+     * Method that reads the number of entries in each chunk
+     * @return entries in each chunk, or null if the section has not been saved
+     * @throws IOException if the index could not be read
+     */
+    int[] readIndex() throws IOException {
+        File index = new File(directory, INDEX);
+        if (!index.isFile())
+            return null;
+
+        JsonArray sizes = read(index).getAsJsonObject().getAsJsonArray("sizes");
+        int[] result = new int[sizes.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = sizes.get(i).getAsInt();
+        return result;
+    }
+
+    /**
+     * Method that writes the number of entries in each chunk, once the chunks have been written
+     * @param sizes entries in each chunk
+     * @throws IOException if the index could not be written
+     */
+    void writeIndex(int[] sizes) throws IOException {
+        JsonArray array = new JsonArray();
+        for (int size : sizes)
+            array.add(new JsonPrimitive(size));
+        JsonObject index = new JsonObject();
+        index.add("sizes", array);
+        write(new File(directory, INDEX), index);
+    }
+
+    /**
+     * Method that reads the entries of a chunk
+     * @param chunk index of the chunk
+     * @param <K> type of the keys
+     * @param <V> type of the values
+     * @return the entries, empty if the chunk has not been saved
+     * @throws IOException if the chunk could not be read
+     */
+    <K, V> Map<K, V> readChunk(int chunk) throws IOException {
+        Map<K, V> entries = new LinkedHashMap<>();
+        File file = new File(directory, chunk + CHUNK_SUFFIX);
+        if (!file.isFile())
+            return entries;
+
+        for (JsonElement entry : read(file).getAsJsonArray()) {
+            JsonArray pair = entry.getAsJsonArray();
+            K key = gson.fromJson(pair.get(0), keyType);
+            V value = gson.fromJson(pair.get(1), valueType);
+            entries.put(key, value);
+        }
+        return entries;
+    }
+
+    /**
+     * Method that replaces the entries of a chunk
+     * @param chunk index of the chunk
+     * @param entries of the chunk
+     * @throws IOException if the chunk could not be written
+     */
+    void writeChunk(int chunk, Map<?, ?> entries) throws IOException {
+        JsonArray array = new JsonArray();
+        entries.forEach((key, value) -> {
+            JsonArray pair = new JsonArray();
+            pair.add(gson.toJsonTree(key, keyType));
+            pair.add(value == null ? JsonNull.INSTANCE : gson.toJsonTree(value, valueType));
+            array.add(pair);
+        });
+        write(new File(directory, chunk + CHUNK_SUFFIX), array);
+    }
+
+    private JsonElement read(File file) throws IOException {
+        try (InputStream raw = new BufferedInputStream(new FileInputStream(file));
+             InputStream in = Compression.detect(raw).decompress(raw)) {
+            Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            if (!configuration.readable())
+                reader = ConfigLoader.service.unscramblingReader(reader);
+            return new JsonParser().parse(reader);
+        } catch (JsonParseException e) {
+            throw new IOException("Unable to read section file: " + file, e);
+        }
+    }
+
+    private void write(File file, JsonElement json) throws IOException {
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("Unable to create section directory: " + directory);
+
+        AtomicFileWriter.write(file, configuration.durability(), out ->
+                configuration.compression().compress(out, configuration.compressionLevel(), compressed -> {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(compressed, StandardCharsets.UTF_8));
+                    if (!configuration.readable())
+                        writer = ConfigLoader.service.scramblingWriter(writer);
+                    gson.toJson(json, writer);
+                    writer.flush();
+                }));
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.srbarber1997.configuration;
+
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation that marks a map field of a {@link ConfigurationModel} as
+ * sectioned. The entries of a sectioned map are not stored in the config file,
+ * they are split between chunk files stored next to it, and a chunk is only read
+ * when one of its entries is first used. Only a bounded number of chunks are
+ * kept in memory, so large maps cost memory in proportion to what is used.
+ * The field must be a {@link SectionedMap} with type arguments, it is assigned
+ * a new map when the config is loaded if it holds none
+ * <pre>
+ * {@literal @}Sectioned(chunks = 256, residentChunks = 16)
+ * private SectionedMap&lt;String, Product&gt; products = new SectionedMap&lt;&gt;();
+ * </pre>
+ * @see SectionedMap
+ * @author srbarber1997
+ */
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Sectioned {
+
+    /**
+     * Chunks property of the section. This property indicates to the loader
+     * how many chunk files the entries are split between. Only used when the
+     * section is first saved, a saved section keeps the chunks it was saved with.
+     * This property is optional and will default to 64
+     * @return number of chunks
+     */
+    int chunks() default 64;
+
+    /**
+     * Resident chunks property of the section. This property indicates to the
+     * loader how many unmodified chunks are kept in memory, the least recently
+     * used chunk is dropped when another is read. Modified chunks are kept until saved.
+     * This property is optional and will default to 8
+     * @return number of chunks kept in memory
+     */
+    int residentChunks() default 8;
+}
@@ -0,0 +1,407 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Map of a {@link Sectioned} field, whose entries are stored in chunk files
+ * rather than the config file. A chunk is read when one of its entries is first
+ * used, and the least recently used unmodified chunk is dropped from memory when
+ * more than {@link Sectioned#residentChunks()} are held. Modified chunks are
+ * written, and may then be dropped, when the config is saved.
+ *
+ * A map created by a model holds its entries in memory until the config is
+ * loaded. They are the initial entries of the section, used only if it has
+ * not been saved, as are the entries in the config file of a map field written
+ * before it was sectioned. Iterating the map reads every chunk in turn, only the bounded number
+ * stay in memory. Methods are synchronized, so the map can be shared between threads.
+ *
+ * The gson instances of the loader leave sectioned maps out of config files, a
+ * model with its own gson must register {@link SectionedMap#typeAdapterFactory()}
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @see Sectioned
+ * @author srbarber1997
+ */
+public final class SectionedMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Entries held until the map is bound to its section
+     */
+    private final Map<K, V> unbound = new LinkedHashMap<>();
+    /**
+     * Json of the entries, when read from a config file written before the field was sectioned
+     */
+    private JsonElement unparsed;
+
+    private SectionStore store;
+    private int[] sizes;
+    private int residentLimit;
+    private final Set<Integer> dirty = new HashSet<>();
+    /**
+     * Chunks in memory, in the order they were last used
+     */
+    private final LinkedHashMap<Integer, Map<K, V>> resident = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Factory of the type adapter that leaves sectioned maps out of config
+     * files. It must be registered, as gson reads and writes maps before
+     * looking for a {@link com.google.gson.annotations.JsonAdapter} annotation
+     */
+    private static final TypeAdapterFactory TYPE_ADAPTER_FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            return SectionedMap.class.isAssignableFrom(type.getRawType()) ? (TypeAdapter<T>) new Adapter() : null;
+        }
+    };
+
+    /**
+     * Creates an empty map
+     */
+    public SectionedMap() { }
+
+    /**
+     * Creates a map holding the entries of another map, the initial entries of the section
+     * @param entries to copy
+     */
+    public SectionedMap(Map<? extends K, ? extends V> entries) {
+        unbound.putAll(entries);
+    }
+
+    /**
+     * Method to get the factory of the type adapter that leaves sectioned
+     * maps out of config files, for models that create their own gson instance
+     * <pre>
+     * builder.registerTypeAdapterFactory(SectionedMap.typeAdapterFactory())
+     * </pre>
+     * @return the type adapter factory
+     */
+    public static TypeAdapterFactory typeAdapterFactory() {
+        return TYPE_ADAPTER_FACTORY;
+    }
+
+    /**
+     * Method that binds the map to its section, reading its index. The
+     * entries held by the map are moved into the section if it has not been saved
+     * @param store of the section
+     * @param chunks number of chunks if the section has not been saved
+     * @param residentLimit number of unmodified chunks kept in memory
+     * @param initial entries read from the config file, or null
+     * @throws IOException if the index could not be read
+     */
+    synchronized void bind(SectionStore store, int chunks, int residentLimit, Map<K, V> initial) throws IOException {
+        this.store = store;
+        this.residentLimit = Math.max(residentLimit, 1);
+        this.sizes = store.readIndex();
+        if (sizes != null) {
+            unbound.clear();
+            return;
+        }
+
+        sizes = new int[Math.max(chunks, 1)];
+        Map<K, V> entries = new LinkedHashMap<>(unbound);
+        if (initial != null)
+            entries.putAll(initial);
+        unbound.clear();
+        entries.forEach(this::put);
+    }
+
+    /**
+     * @return true if the map has been bound to its section
+     */
+    synchronized boolean isBound() {
+        return store != null;
+    }
+
+    /**
+     * Method that takes the json read for the map from a config file written
+     * before the field was sectioned
+     * @return the json of the entries, or null
+     */
+    synchronized JsonElement takeUnparsed() {
+        JsonElement json = unparsed;
+        unparsed = null;
+        return json;
+    }
+
+    /**
+     * Method that writes the modified chunks and the index of the section
+     * @throws IOException if the section could not be written
+     */
+    synchronized void flush() throws IOException {
+        if (store == null || dirty.isEmpty())
+            return;
+
+        for (Iterator<Integer> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            int chunk = iterator.next();
+            store.writeChunk(chunk, resident.get(chunk));
+            iterator.remove();
+        }
+        store.writeIndex(sizes);
+        evict(-1);
+    }
+
+    /**
+     * Method to get the number of chunks held in memory, which includes modified chunks not yet saved
+     * @return number of chunks in memory
+     */
+    public synchronized int getResidentChunks() {
+        return store == null ? 0 : resident.size();
+    }
+
+    @Override
+    public synchronized int size() {
+        if (store == null)
+            return unbound.size();
+        int size = 0;
+        for (int chunkSize : sizes)
+            size += chunkSize;
+        return size;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return store == null ? unbound.containsKey(key) : chunkFor(key).containsKey(key);
+    }
+
+    @Override
+    public synchronized V get(Object key) {
+        return store == null ? unbound.get(key) : chunkFor(key).get(key);
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        if (store == null)
+            return unbound.put(key, value);
+
+        int index = store.chunkOf(key, sizes.length);
+        Map<K, V> chunk = chunk(index);
+        boolean added = !chunk.containsKey(key);
+        V previous = chunk.put(key, value);
+        if (added)
+            sizes[index]++;
+        dirty.add(index);
+        return previous;
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (store == null)
+            return unbound.remove(key);
+
+        int index = store.chunkOf(key, sizes.length);
+        Map<K, V> chunk = chunk(index);
+        if (!chunk.containsKey(key))
+            return null;
+        sizes[index]--;
+        dirty.add(index);
+        return chunk.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        if (store == null) {
+            unbound.clear();
+            return;
+        }
+
+        // Cleared chunks need not be read
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] == 0 && !resident.containsKey(i))
+                continue;
+            resident.put(i, new LinkedHashMap<>());
+            sizes[i] = 0;
+            dirty.add(i);
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new ChunkIterator();
+            }
+
+            @Override
+            public int size() {
+                return SectionedMap.this.size();
+            }
+        };
+    }
+
+    private Map<K, V> chunkFor(Object key) {
+        return chunk(store.chunkOf(key, sizes.length));
+    }
+
+    /**
+     * Method that finds a chunk in memory, reading it if it is not
+     * @param index of the chunk
+     * @return entries of the chunk
+     */
+    private Map<K, V> chunk(int index) {
+        Map<K, V> chunk = resident.get(index);
+        if (chunk != null)
+            return chunk;
+
+        try {
+            chunk = sizes[index] == 0 ? new LinkedHashMap<>() : store.readChunk(index);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read chunk " + index + " of a sectioned map", e);
+        }
+        resident.put(index, chunk);
+        evict(index);
+        return chunk;
+    }
+
+    /**
+     * Method that drops the least recently used unmodified chunks, until no
+     * more than the limit are in memory or only modified chunks are left
+     * @param keep index of a chunk not to drop
+     */
+    private void evict(int keep) {
+        Iterator<Integer> iterator = resident.keySet().iterator();
+        while (resident.size() > residentLimit && iterator.hasNext()) {
+            int index = iterator.next();
+            if (index != keep && !dirty.contains(index))
+                iterator.remove();
+        }
+    }
+
+    /**
+     * Iterates the entries one chunk at a time, from a copy of each
+     * chunk so the chunk may be dropped, or the map modified, while iterating
+     */
+    private class ChunkIterator implements Iterator<Entry<K, V>> {
+        private int next;
+        private Iterator<Entry<K, V>> entries = Collections.emptyIterator();
+        private K last;
+        private boolean removable;
+
+        @Override
+        public boolean hasNext() {
+            synchronized (SectionedMap.this) {
+                while (!entries.hasNext()) {
+                    if (store == null) {
+                        if (next++ > 0)
+                            return false;
+                        entries = new ArrayList<>(unbound.entrySet()).iterator();
+                    } else {
+                        if (next >= sizes.length)
+                            return false;
+                        int index = next++;
+                        if (sizes[index] > 0)
+                            entries = copy(chunk(index)).iterator();
+                    }
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Entry<K, V> entry = entries.next();
+            last = entry.getKey();
+            removable = true;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (!removable)
+                throw new IllegalStateException();
+            SectionedMap.this.remove(last);
+            removable = false;
+        }
+
+        private List<Entry<K, V>> copy(Map<K, V> chunk) {
+            List<Entry<K, V>> copy = new ArrayList<>(chunk.size());
+            chunk.forEach((key, value) -> copy.add(new ChunkEntry<>(SectionedMap.this, key, value)));
+            return copy;
+        }
+    }
+
+    /**
+     * Entry of a copied chunk, setting its value puts the value in the map
+     */
+    private static final class ChunkEntry<K, V> implements Entry<K, V> {
+        private final SectionedMap<K, V> map;
+        private final K key;
+        private V value;
+
+        private ChunkEntry(SectionedMap<K, V> map, K key, V value) {
+            this.map = map;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            map.put(key, value);
+            V previous = this.value;
+            this.value = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Leaves the entries out of the config file, they are written to the
+     * chunk files. The entries of a config file written before the field
+     * was sectioned are kept as json, until the map is bound
+     */
+    private static class Adapter extends TypeAdapter<SectionedMap<?, ?>> {
+
+        @Override
+        public void write(JsonWriter out, SectionedMap<?, ?> value) throws IOException {
+            out.nullValue();
+        }
+
+        @Override
+        public SectionedMap<?, ?> read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            SectionedMap<?, ?> map = new SectionedMap<>();
+            map.unparsed = new JsonParser().parse(in);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the {@link Sectioned} fields of configs to their sections, and
+ * writes the modified chunks of the sections when configs are saved.
+ * The sections of a config are stored in the directory 'name.sections',
+ * next to its config file, with a directory for each field
+ * @see SectionedMap
+ */
+final class Sections {
+
+    /**
+     * Sectioned fields of each model class, empty for most models
+     */
+    private static final Map<Class<?>, List<Field>> fields = new ConcurrentHashMap<>();
+
+    private Sections() { }
+
+    /**
+     * Method that binds the sectioned fields of a newly loaded config. A field
+     * holding no map, or the bound map of another instance, is assigned a new map
+     * @param config instance that was loaded
+     * @param directory of the config file
+     * @param configuration of the config
+     * @throws IOException if the index of a section could not be read
+     */
+    @SuppressWarnings("unchecked")
+    static void bind(Object config, File directory, Configuration configuration) throws IOException {
+        if (config == null)
+            return;
+
+        Gson gson = GsonCache.get(config.getClass());
+        for (Field field : fields(config.getClass())) {
+            Sectioned sectioned = field.getAnnotation(Sectioned.class);
+            Type[] types = ((ParameterizedType) field.getGenericType()).getActualTypeArguments();
+
+            SectionedMap<Object, Object> map = (SectionedMap<Object, Object>) get(field, config);
+            // A bound map belongs to another instance, such as the config being reloaded
+            if (map == null || map.isBound()) {
+                map = new SectionedMap<>();
+                set(field, config, map);
+            }
+            Map<Object, Object> initial = null;
+            JsonElement unparsed = map.takeUnparsed();
+            if (unparsed != null)
+                initial = gson.fromJson(unparsed, mapType(types[0], types[1]));
+
+            File section = new File(directory, configuration.name() + ".sections/" + field.getName());
+            SectionStore store = new SectionStore(section, configuration, gson, types[0], types[1]);
+            map.bind(store, sectioned.chunks(), sectioned.residentChunks(), initial);
+        }
+    }
+
+    /**
+     * Method that writes the modified chunks of the sectioned fields of a config
+     * @param config instance being saved
+     * @throws IOException if a section could not be written
+     */
+    static void flush(Object config) throws IOException {
+        if (config == null)
+            return;
+        for (Field field : fields(config.getClass())) {
+            SectionedMap<?, ?> map = (SectionedMap<?, ?>) get(field, config);
+            if (map != null)
+                map.flush();
+        }
+    }
+
+    /**
+     * Method that finds the sectioned fields of a model, checking each is a {@link SectionedMap} with type arguments
+     * @param model class of the model
+     * @return the sectioned fields, accessible
+     */
+    private static List<Field> fields(Class<?> model) {
+        return fields.computeIfAbsent(model, type -> {
+            List<Field> found = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!field.isAnnotationPresent(Sectioned.class) || Modifier.isStatic(field.getModifiers()))
+                        continue;
+                    // Gson writes a field by its declared type, so a field declared as a Map would be written whole
+                    if (field.getType() != SectionedMap.class || !(field.getGenericType() instanceof ParameterizedType))
+                        throw new RuntimeException("Sectioned field must be a SectionedMap with type arguments: " + field);
+                    field.setAccessible(true);
+                    found.add(field);
+                }
+            }
+            return found.isEmpty() ? Collections.emptyList() : found;
+        });
+    }
+
+    private static Object get(Field field, Object config) {
+        try {
+            return field.get(config);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void set(Field field, Object config, Object value) {
+        try {
+            field.set(config, value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the type of a map of the key and value types
+     */
+    private static Type mapType(Type key, Type value) {
+        return new ParameterizedType() {
+            @Override
+            public Type[] getActualTypeArguments() {
+                return new Type[] { key, value };
+            }
+
+            @Override
+            public Type getRawType() {
+                return LinkedHashMap.class;
+            }
+
+            @Override
+            public Type getOwnerType() {
+                return null;
+            }
+        };
+    }
+}
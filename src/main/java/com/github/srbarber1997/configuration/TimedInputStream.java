@@ -0,0 +1,68 @@
+package com.github.srbarber1997.configuration;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream that counts the bytes read from the stream it wraps and the time
+ * spent waiting for them. Used to tell the time taken reading a config file
+ * apart from the time taken deserializing it, as both happen together
+ */
+class TimedInputStream extends FilterInputStream {
+
+    private long count;
+    private long nanos;
+
+    TimedInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        int b = super.read();
+        nanos += System.nanoTime() - start;
+        if (b != -1)
+            count++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int read = super.read(b, off, len);
+        nanos += System.nanoTime() - start;
+        if (read > 0)
+            count += read;
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long start = System.nanoTime();
+        long skipped = super.skip(n);
+        nanos += System.nanoTime() - start;
+        count += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * @return number of bytes read
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @return nanoseconds spent reading
+     */
+    long getNanos() {
+        return nanos;
+    }
+}
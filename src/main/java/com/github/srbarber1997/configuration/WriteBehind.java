@@ -0,0 +1,135 @@
+package com.github.srbarber1997.configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Saves modified configs on a background thread. Configs marked as modified
+ * are collected in a set, so many modifications of the same config between
+ * flushes cost a single save. The set is flushed on an interval, or sooner
+ * once it holds a threshold number of configs
+ * @see ConfigLoader#startWriteBehind(long, TimeUnit, int)
+ */
+class WriteBehind {
+
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler;
+    private final int threshold;
+    private final Consumer<String> saver;
+    private final Logger logger;
+    /**
+     * Set once closing, configs marked after are saved straight away
+     */
+    private boolean closed;
+
+    /**
+     * Constructor that starts flushing on the interval
+     * @param interval between flushes
+     * @param unit of the interval
+     * @param threshold number of modified configs that causes an early flush
+     * @param saver called with the name of each config to save
+     * @param logger to report failed saves to
+     */
+    WriteBehind(long interval, TimeUnit unit, int threshold, Consumer<String> saver, Logger logger) {
+        this.threshold = Math.max(1, threshold);
+        this.saver = saver;
+        this.logger = logger;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Config Loader Write Behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, unit);
+    }
+
+    /**
+     * Method that marks a config as modified, it will be saved by the next flush.
+     * Once closed the config is saved straight away, on the calling thread
+     * @param name of the config
+     */
+    void modified(String name) {
+        boolean queued;
+        boolean full = false;
+        synchronized (pending) {
+            queued = !closed;
+            if (queued) {
+                pending.add(name);
+                full = pending.size() >= threshold;
+            }
+        }
+        if (!queued) {
+            save(name);
+            return;
+        }
+
+        if (full && flushQueued.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Closed since the config was marked, the final flush may have already run
+                flushQueued.set(false);
+                save(name);
+            }
+        }
+    }
+
+    /**
+     * Method that saves every config modified since the last flush
+     */
+    private void flush() {
+        flushQueued.set(false);
+        List<String> names;
+        synchronized (pending) {
+            names = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (String name : names)
+            save(name);
+    }
+
+    private void save(String name) {
+        try {
+            saver.accept(name);
+        } catch (RuntimeException e) {
+            logger.error(e);
+        }
+    }
+
+    /**
+     * Method that stops the background thread after a final flush. Configs
+     * that are still being saved when the timeout passes are abandoned,
+     * their files are left as they were before the save
+     * @param timeout to wait for the final flush
+     * @param unit of the timeout
+     * @return true if the final flush finished in time
+     */
+    boolean close(long timeout, TimeUnit unit) {
+        synchronized (pending) {
+            closed = true;
+        }
+        Future<?> last = scheduler.submit(this::flush);
+        scheduler.shutdown();
+        try {
+            last.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (Exception e) {
+            logger.error(e);
+            return false;
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,887 @@
+package com.github.srbarber1997.configuration.codec;
+
+import com.github.srbarber1997.configuration.Configuration;
+import com.github.srbarber1997.configuration.SectionedMap;
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import com.github.srbarber1997.configuration.serialise.SelfDeserializable;
+import com.github.srbarber1997.configuration.serialise.SelfSerializable;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec of the {@link com.github.srbarber1997.configuration.Format#BINARY} format.
+ * Writes the json of a config in a compact binary encoding. Each value
+ * starts with a one byte tag, lengths and integers are variable length and
+ * every string after its first use is written as a reference to the first,
+ * so the repeated keys of large lookup tables are only stored once.
+ * Numbers, booleans and strings do not need to be parsed from text.
+ *
+ * The encoding is read and written through a {@link JsonReader} and
+ * {@link JsonWriter}, so the type adapter of a model streams to and from
+ * the bytes without building a json tree. Arrays and objects are ended by
+ * a tag, files written with the count of each array and object are still read
+ */
+public class BinaryCodec implements ConfigurationCodec {
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int NUMBER = 5;
+    private static final int STRING = 6;
+    private static final int STRING_REF = 7;
+    /**
+     * Array or object preceded by its number of items or entries, no longer written
+     */
+    private static final int ARRAY = 8;
+    private static final int OBJECT = 9;
+    /**
+     * Array or object ended by the {@link #END} tag
+     */
+    private static final int ARRAY_START = 10;
+    private static final int OBJECT_START = 11;
+    private static final int END = 12;
+
+    /**
+     * Whether each model may hold a map, as found by {@link #holdsMap(Class)}
+     */
+    private static final Map<Class<?>, Boolean> holdsMap = new ConcurrentHashMap<>();
+
+    private static final TypeToken<Map<String, Object>> MAP_TYPE = new TypeToken<Map<String, Object>>() { };
+
+    /**
+     * Factory of the type adapter that reads maps from the binary encoding
+     */
+    private static final TypeAdapterFactory TYPE_ADAPTER_FACTORY = new TypeAdapterFactory() {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<?> raw = type.getRawType();
+            if (!Map.class.isAssignableFrom(raw) || SectionedMap.class.isAssignableFrom(raw))
+                return null;
+            return new MapAdapter<>(gson.getDelegateAdapter(this, type));
+        }
+    };
+
+    @Override
+    public Object read(InputStream in, Class<?> objClass, Configuration configuration) throws Exception {
+        return read(in, objClass);
+    }
+
+    /**
+     * Method that reads a config from the binary encoding
+     * @param in stream of the encoding
+     * @param objClass of the config model
+     * @return instance of the objClass
+     * @throws Exception if the encoding could not be read as the objClass
+     */
+    public Object read(InputStream in, Class<?> objClass) throws Exception {
+        JsonReader reader = newReader(in);
+        if (!SelfDeserializable.class.isAssignableFrom(objClass)) {
+            // Without the map adapter gson reads a map by promoting each name to a value, which only its own readers allow
+            if (holdsMap(objClass) && !(GsonCache.get(objClass).getAdapter(MAP_TYPE) instanceof MapAdapter))
+                return GsonCache.adapter(objClass).fromJsonTree(new JsonParser().parse(reader));
+            return GsonCache.adapter(objClass).read(reader);
+        }
+
+        // The model reads json text
+        StringWriter json = new StringWriter();
+        JsonWriter writer = new JsonWriter(json);
+        writer.setLenient(true);
+        copy(reader, writer);
+        SelfDeserializable obj = (SelfDeserializable) objClass.newInstance();
+        return obj.deserialize(json.toString(), objClass);
+    }
+
+    @Override
+    public void write(Object obj, OutputStream out, Configuration configuration) throws Exception {
+        write(obj, out);
+    }
+
+    /**
+     * Method that writes a config in the binary encoding
+     * @param obj config to write
+     * @param out stream to write the encoding to, flushed but not closed
+     * @throws Exception if the config could not be written
+     */
+    public void write(Object obj, OutputStream out) throws Exception {
+        JsonWriter writer = newWriter(out);
+        if (!SelfSerializable.class.isAssignableFrom(obj.getClass()))
+            GsonCache.get(obj.getClass()).toJson(obj, obj.getClass(), writer);
+        else {
+            // The model writes json text
+            JsonReader reader = new JsonReader(new StringReader(((SelfSerializable) obj).serialise(obj)));
+            reader.setLenient(true);
+            copy(reader, writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Method to get a reader of the binary encoding
+     * @param in stream of the encoding
+     * @return reader of the json encoded in the stream
+     */
+    public static JsonReader newReader(InputStream in) {
+        return new BinaryJsonReader(new DataInputStream(in));
+    }
+
+    /**
+     * Method to get a writer of the binary encoding, which must be flushed
+     * @param out stream to write the encoding to
+     * @return writer that encodes json to the stream
+     */
+    public static JsonWriter newWriter(OutputStream out) {
+        return new BinaryJsonWriter(new DataOutputStream(new BufferedOutputStream(out)));
+    }
+
+    /**
+     * Method that copies a json value from a reader to a writer, one token at a time
+     * @param in reader of the value
+     * @param out writer to copy the value to, not flushed
+     * @throws IOException if the value could not be read or written
+     */
+    public static void copy(JsonReader in, JsonWriter out) throws IOException {
+        int depth = 0;
+        do {
+            JsonToken token = in.peek();
+            switch (token) {
+                case BEGIN_ARRAY:
+                    in.beginArray();
+                    out.beginArray();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    in.endArray();
+                    out.endArray();
+                    depth--;
+                    break;
+                case BEGIN_OBJECT:
+                    in.beginObject();
+                    out.beginObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    in.endObject();
+                    out.endObject();
+                    depth--;
+                    break;
+                case NAME:
+                    out.name(in.nextName());
+                    break;
+                case STRING:
+                    out.value(in.nextString());
+                    break;
+                case NUMBER:
+                    out.value(new NumberText(in.nextString()));
+                    break;
+                case BOOLEAN:
+                    out.value(in.nextBoolean());
+                    break;
+                case NULL:
+                    in.nextNull();
+                    out.nullValue();
+                    break;
+                default:
+                    throw new EOFException("Expected a json value but was " + token);
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Method to get the factory of the type adapter that reads maps from the binary
+     * encoding, for models that create their own gson instance. The maps of a model
+     * whose gson does not register it are read through a json tree, which is slower
+     * <pre>
+     * builder.registerTypeAdapterFactory(BinaryCodec.typeAdapterFactory())
+     * </pre>
+     * @return the type adapter factory
+     */
+    public static TypeAdapterFactory typeAdapterFactory() {
+        return TYPE_ADAPTER_FACTORY;
+    }
+
+    /**
+     * Method that finds if gson may read a map of a model, which is only
+     * possible with a json tree. Found once per model
+     * @param model class of the model
+     * @return true if a field of the model, or of the classes it holds, may be a map
+     */
+    private static boolean holdsMap(Class<?> model) {
+        return holdsMap.computeIfAbsent(model, type -> holdsMap(type, new HashSet<>()));
+    }
+
+    private static boolean holdsMap(Type type, Set<Class<?>> visited) {
+        if (type instanceof ParameterizedType) {
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments())
+                if (holdsMap(argument, visited))
+                    return true;
+            return holdsMap(((ParameterizedType) type).getRawType(), visited);
+        }
+        if (type instanceof GenericArrayType)
+            return holdsMap(((GenericArrayType) type).getGenericComponentType(), visited);
+        // A type variable or wildcard may be a map
+        if (!(type instanceof Class))
+            return true;
+
+        Class<?> c = (Class<?>) type;
+        if (c.isArray())
+            return holdsMap(c.getComponentType(), visited);
+        // Sectioned maps are read by their own type adapter, as a json tree
+        if (Map.class.isAssignableFrom(c))
+            return !SectionedMap.class.isAssignableFrom(c);
+        if (c.isPrimitive() || c.isEnum() || c.getName().startsWith("java.") || c.getName().startsWith("javax.")
+                || c.getName().startsWith("com.google.gson.") || !visited.add(c))
+            return false;
+
+        for (Class<?> declaring = c; declaring != null && declaring != Object.class; declaring = declaring.getSuperclass())
+            for (Field field : declaring.getDeclaredFields())
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())
+                        && holdsMap(field.getGenericType(), visited))
+                    return true;
+        return false;
+    }
+
+    /**
+     * Number copied as the text it was read as, so it is written without losing precision
+     */
+    private static final class NumberText extends Number {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+
+        private NumberText(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) longValue();
+        }
+
+        @Override
+        public long longValue() {
+            return new BigDecimal(text).longValue();
+        }
+
+        @Override
+        public float floatValue() {
+            return Float.parseFloat(text);
+        }
+
+        @Override
+        public double doubleValue() {
+            return Double.parseDouble(text);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Reads a map from the binary encoding as an array of [key, value] arrays,
+     * which gson reads without promoting each key to a value. Maps are otherwise
+     * read and written by the adapter gson would use
+     * @param <T> type of the map
+     */
+    private static class MapAdapter<T> extends TypeAdapter<T> {
+
+        private final TypeAdapter<T> delegate;
+
+        private MapAdapter(TypeAdapter<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            delegate.write(out, value);
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in instanceof BinaryJsonReader)
+                ((BinaryJsonReader) in).readEntries();
+            return delegate.read(in);
+        }
+    }
+
+    /**
+     * Writes the binary encoding. A name is held until its value is written,
+     * so a null value can be left out as with a json writer
+     */
+    private static class BinaryJsonWriter extends JsonWriter {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private String deferredName;
+
+        private BinaryJsonWriter(DataOutputStream out) {
+            // The text writer of the super class is not used
+            super(new StringWriter());
+            this.out = out;
+        }
+
+        @Override
+        public JsonWriter beginArray() throws IOException {
+            writeDeferredName();
+            out.writeByte(ARRAY_START);
+            return this;
+        }
+
+        @Override
+        public JsonWriter endArray() throws IOException {
+            return end();
+        }
+
+        @Override
+        public JsonWriter beginObject() throws IOException {
+            writeDeferredName();
+            out.writeByte(OBJECT_START);
+            return this;
+        }
+
+        @Override
+        public JsonWriter endObject() throws IOException {
+            return end();
+        }
+
+        @Override
+        public JsonWriter name(String name) throws IOException {
+            if (name == null)
+                throw new NullPointerException("name == null");
+            if (deferredName != null)
+                throw new IllegalStateException("Expected a value after the name: " + deferredName);
+            deferredName = name;
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(String value) throws IOException {
+            if (value == null)
+                return nullValue();
+            writeDeferredName();
+            writeString(value);
+            return this;
+        }
+
+        @Override
+        public JsonWriter nullValue() throws IOException {
+            if (deferredName != null && !getSerializeNulls()) {
+                deferredName = null;
+                return this;
+            }
+            writeDeferredName();
+            out.writeByte(NULL);
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(boolean value) throws IOException {
+            writeDeferredName();
+            out.writeByte(value ? TRUE : FALSE);
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(double value) throws IOException {
+            if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value)))
+                throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+            writeDeferredName();
+            out.writeByte(DOUBLE);
+            out.writeDouble(value);
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(long value) throws IOException {
+            writeDeferredName();
+            out.writeByte(LONG);
+            writeVarLong(value);
+            return this;
+        }
+
+        @Override
+        public JsonWriter value(Number value) throws IOException {
+            if (value == null)
+                return nullValue();
+            if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte)
+                return value(value.longValue());
+            if (value instanceof Double || value instanceof Float)
+                return value(value.doubleValue());
+
+            String text = value.toString();
+            try {
+                return value(Long.parseLong(text));
+            } catch (NumberFormatException e) {
+                if (!isLenient() && (text.equals("NaN") || text.endsWith("Infinity")))
+                    throw new IllegalArgumentException("Numeric values must be finite, but was " + text);
+                writeDeferredName();
+                out.writeByte(NUMBER);
+                writeBytes(text.getBytes(StandardCharsets.UTF_8));
+                return this;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private JsonWriter end() throws IOException {
+            if (deferredName != null)
+                throw new IllegalStateException("Expected a value after the name: " + deferredName);
+            out.writeByte(END);
+            return this;
+        }
+
+        private void writeDeferredName() throws IOException {
+            if (deferredName != null) {
+                writeString(deferredName);
+                deferredName = null;
+            }
+        }
+
+        private void writeString(String string) throws IOException {
+            Integer reference = strings.get(string);
+            if (reference != null) {
+                out.writeByte(STRING_REF);
+                writeVarInt(reference);
+                return;
+            }
+
+            strings.put(string, strings.size());
+            out.writeByte(STRING);
+            writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        /**
+         * Writes the value seven bits at a time, zigzag encoded
+         * so small negative numbers are small too
+         */
+        private void writeVarLong(long value) throws IOException {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.writeByte((int) zigzag);
+        }
+    }
+
+    /**
+     * Reads the binary encoding. The tag of the next value is read when it is
+     * peeked, and each open array and object is kept on a stack with the number
+     * of values left in it, or -1 if it is ended by a tag.
+     *
+     * An object can be read as an array of [name, value] arrays, the form gson
+     * reads a map from without promoting each name to a value
+     * @see MapAdapter
+     */
+    private static class BinaryJsonReader extends JsonReader {
+
+        private static final int IN_ARRAY = 0;
+        private static final int IN_OBJECT = 1;
+        /**
+         * Object read as an array of entries
+         */
+        private static final int IN_ENTRIES = 2;
+        /**
+         * Entry of an object read as an array of its name and value, it has no tags of its own
+         */
+        private static final int IN_ENTRY = 3;
+
+        /**
+         * Largest number of bytes allocated before they are read
+         */
+        private static final int CHUNK_SIZE = 8192;
+
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        private int[] remaining = new int[32];
+        private int[] kinds = new int[32];
+        private int depth;
+        /**
+         * True when the next token of the innermost object is a name
+         */
+        private boolean expectName;
+        private boolean finished;
+        /**
+         * True if the next value, when an object, is read as an array of entries
+         */
+        private boolean entries;
+        /**
+         * Tag of the next value, or -1 if it has not been read
+         */
+        private int tag = -1;
+
+        private BinaryJsonReader(DataInputStream in) {
+            // The text reader of the super class is not used
+            super(new StringReader(""));
+            this.in = in;
+        }
+
+        @Override
+        public JsonToken peek() throws IOException {
+            if (depth == 0) {
+                if (finished)
+                    return JsonToken.END_DOCUMENT;
+            } else {
+                int top = depth - 1;
+                if (remaining[top] == 0 || (remaining[top] < 0 && tag() == END))
+                    return kinds[top] == IN_OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+                if (kinds[top] == IN_ENTRIES)
+                    return JsonToken.BEGIN_ARRAY;
+                if (expectName)
+                    return JsonToken.NAME;
+            }
+
+            int tag = tag();
+            if (entries && (tag == OBJECT || tag == OBJECT_START))
+                return JsonToken.BEGIN_ARRAY;
+            switch (tag) {
+                case NULL:
+                    return JsonToken.NULL;
+                case FALSE:
+                case TRUE:
+                    return JsonToken.BOOLEAN;
+                case LONG:
+                case DOUBLE:
+                case NUMBER:
+                    return JsonToken.NUMBER;
+                case STRING:
+                case STRING_REF:
+                    return JsonToken.STRING;
+                case ARRAY:
+                case ARRAY_START:
+                    return JsonToken.BEGIN_ARRAY;
+                case OBJECT:
+                case OBJECT_START:
+                    return JsonToken.BEGIN_OBJECT;
+                default:
+                    throw new IOException("Unknown binary config tag: " + tag);
+            }
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            JsonToken token = peek();
+            return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            expect(JsonToken.BEGIN_ARRAY);
+            // The name of an entry is read as the first value of its array
+            if (depth > 0 && kinds[depth - 1] == IN_ENTRIES) {
+                push(IN_ENTRY, 2);
+                return;
+            }
+
+            int tag = takeTag();
+            if (tag == OBJECT || tag == OBJECT_START)
+                push(IN_ENTRIES, tag == OBJECT ? readVarInt() : -1);
+            else
+                push(IN_ARRAY, tag == ARRAY ? readVarInt() : -1);
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            expect(JsonToken.END_ARRAY);
+            pop();
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            expect(JsonToken.BEGIN_OBJECT);
+            push(IN_OBJECT, takeTag() == OBJECT ? readVarInt() : -1);
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            expect(JsonToken.END_OBJECT);
+            pop();
+        }
+
+        @Override
+        public String nextName() throws IOException {
+            expect(JsonToken.NAME);
+            expectName = false;
+            return readString(takeTag());
+        }
+
+        @Override
+        public String nextString() throws IOException {
+            JsonToken token = peek();
+            String value;
+            if (token == JsonToken.STRING)
+                value = readString(takeTag());
+            else if (token == JsonToken.NUMBER) {
+                int tag = takeTag();
+                if (tag == LONG)
+                    value = Long.toString(readVarLong());
+                else if (tag == DOUBLE)
+                    value = Double.toString(in.readDouble());
+                else
+                    value = new String(readBytes(), StandardCharsets.UTF_8);
+            } else
+                throw new IllegalStateException("Expected a string but was " + token);
+            endValue();
+            return value;
+        }
+
+        @Override
+        public boolean nextBoolean() throws IOException {
+            expect(JsonToken.BOOLEAN);
+            boolean value = takeTag() == TRUE;
+            endValue();
+            return value;
+        }
+
+        @Override
+        public void nextNull() throws IOException {
+            expect(JsonToken.NULL);
+            takeTag();
+            endValue();
+        }
+
+        @Override
+        public double nextDouble() throws IOException {
+            if (peek() == JsonToken.NUMBER && tag() != NUMBER) {
+                double value = takeTag() == DOUBLE ? in.readDouble() : readVarLong();
+                endValue();
+                return value;
+            }
+            return Double.parseDouble(nextString());
+        }
+
+        @Override
+        public long nextLong() throws IOException {
+            if (peek() == JsonToken.NUMBER && tag() == LONG) {
+                takeTag();
+                long value = readVarLong();
+                endValue();
+                return value;
+            }
+
+            double value;
+            if (peek() == JsonToken.NUMBER && tag() == DOUBLE)
+                value = nextDouble();
+            else {
+                String text = nextString();
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    value = Double.parseDouble(text);
+                }
+            }
+            if ((long) value != value)
+                throw new NumberFormatException("Expected a long but was " + value);
+            return (long) value;
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            long value = nextLong();
+            if ((int) value != value)
+                throw new NumberFormatException("Expected an int but was " + value);
+            return (int) value;
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            int skipped = 0;
+            do {
+                switch (peek()) {
+                    case BEGIN_ARRAY:
+                        beginArray();
+                        skipped++;
+                        break;
+                    case END_ARRAY:
+                        endArray();
+                        skipped--;
+                        break;
+                    case BEGIN_OBJECT:
+                        beginObject();
+                        skipped++;
+                        break;
+                    case END_OBJECT:
+                        endObject();
+                        skipped--;
+                        break;
+                    case NAME:
+                        nextName();
+                        break;
+                    case BOOLEAN:
+                        nextBoolean();
+                        break;
+                    case NULL:
+                        nextNull();
+                        break;
+                    default:
+                        nextString();
+                }
+            } while (skipped > 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName();
+        }
+
+        /**
+         * Method that reads the next value, if it is an object, as an array of [name, value] arrays
+         */
+        private void readEntries() {
+            entries = true;
+        }
+
+        private void expect(JsonToken expected) throws IOException {
+            JsonToken token = peek();
+            if (token != expected)
+                throw new IllegalStateException("Expected " + expected + " but was " + token);
+        }
+
+        private int tag() throws IOException {
+            if (tag < 0)
+                tag = in.readUnsignedByte();
+            return tag;
+        }
+
+        private int takeTag() throws IOException {
+            int tag = tag();
+            this.tag = -1;
+            entries = false;
+            return tag;
+        }
+
+        private void push(int kind, int count) {
+            if (depth == remaining.length) {
+                remaining = Arrays.copyOf(remaining, depth * 2);
+                kinds = Arrays.copyOf(kinds, depth * 2);
+            }
+            remaining[depth] = count;
+            kinds[depth++] = kind;
+            expectName = kind == IN_OBJECT;
+        }
+
+        private void pop() throws IOException {
+            if (remaining[depth - 1] < 0)
+                takeTag();
+            depth--;
+            endValue();
+        }
+
+        /**
+         * Method that moves past a value, to the next name of an object
+         */
+        private void endValue() {
+            if (depth == 0) {
+                finished = true;
+                return;
+            }
+            if (remaining[depth - 1] > 0)
+                remaining[depth - 1]--;
+            expectName = kinds[depth - 1] == IN_OBJECT;
+        }
+
+        private String readString(int tag) throws IOException {
+            if (tag == STRING_REF) {
+                int reference = readVarInt();
+                if (reference >= strings.size())
+                    throw new IOException("Unknown binary config string reference: " + reference);
+                return strings.get(reference);
+            }
+            if (tag != STRING)
+                throw new IOException("Expected a string in binary config but found tag: " + tag);
+
+            String string = new String(readBytes(), StandardCharsets.UTF_8);
+            strings.add(string);
+            return string;
+        }
+
+        /**
+         * Method that reads a length and then the bytes. The bytes are read in bounded chunks,
+         * so a corrupt length fails at the end of the stream rather than allocating it
+         */
+        private byte[] readBytes() throws IOException {
+            int length = readVarInt();
+            if (length <= CHUNK_SIZE) {
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return bytes;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHUNK_SIZE);
+            byte[] chunk = new byte[CHUNK_SIZE];
+            for (int left = length; left > 0; ) {
+                int read = Math.min(left, CHUNK_SIZE);
+                in.readFully(chunk, 0, read);
+                bytes.write(chunk, 0, read);
+                left -= read;
+            }
+            return bytes.toByteArray();
+        }
+
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE)
+                throw new IOException("Invalid binary config length: " + value);
+            return (int) value;
+        }
+
+        private long readVarLong() throws IOException {
+            long zigzag = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (shift > 63)
+                    throw new IOException("Malformed variable length number in binary config");
+                b = in.readUnsignedByte();
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.srbarber1997.configuration.codec;
+
+import com.github.srbarber1997.configuration.ConfigLoader;
+import com.github.srbarber1997.configuration.Configuration;
+import com.github.srbarber1997.configuration.Format;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface used by the {@link ConfigLoader} to read and write the
+ * config files of a {@link Format}. Replace the codec of a format
+ * with {@link ConfigLoader#chooseCodec(Format, ConfigurationCodec)}
+ * @see JsonCodec
+ * @see BinaryCodec
+ */
+public interface ConfigurationCodec {
+
+    /**
+     * Method that reads a config from a file
+     * @param in stream of the file, after any format header. Closed by the caller
+     * @param objClass of the config model
+     * @param configuration annotation with property data
+     * @return instance of the objClass, or null if the stream holds no config
+     * @throws Exception if the stream could not be read as the objClass
+     */
+    Object read(InputStream in, Class<?> objClass, Configuration configuration) throws Exception;
+
+    /**
+     * Method that writes a config to a file
+     * @param obj config to write
+     * @param out stream of the file, after any format header. Closed by the caller
+     * @param configuration annotation with property data
+     * @throws Exception if the config could not be written
+     */
+    void write(Object obj, OutputStream out, Configuration configuration) throws Exception;
+}
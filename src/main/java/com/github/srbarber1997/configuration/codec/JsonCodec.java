@@ -0,0 +1,81 @@
+package com.github.srbarber1997.configuration.codec;
+
+import com.github.srbarber1997.configuration.Configuration;
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import com.github.srbarber1997.configuration.serialise.SelfDeserializable;
+import com.github.srbarber1997.configuration.serialise.SelfSerializable;
+import com.github.srbarber1997.configuration.util.Scrambler;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Codec of the {@link com.github.srbarber1997.configuration.Format#JSON} format.
+ * Streams json text in the platform charset, scrambled when the configuration
+ * is not {@link Configuration#readable()}. Models are read and written with
+ * their cached gson instance, unless they serialise themselves
+ * @see SelfSerializable
+ * @see SelfDeserializable
+ */
+public class JsonCodec implements ConfigurationCodec {
+
+    private final Scrambler scrambler;
+
+    /**
+     * Constructor of the codec
+     * @param scrambler used for configs that are not readable
+     */
+    public JsonCodec(Scrambler scrambler) {
+        this.scrambler = scrambler;
+    }
+
+    @Override
+    public Object read(InputStream in, Class<?> objClass, Configuration configuration) throws Exception {
+        Reader reader = new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()));
+        if (!configuration.readable())
+            reader = scrambler.unscramblingReader(reader);
+
+        return read(reader, objClass);
+    }
+
+    /**
+     * Method that reads a config from readable json
+     * @param reader of the json
+     * @param objClass of the config model
+     * @return instance of the objClass, or null if there is no json
+     * @throws Exception if the json could not be read as the objClass
+     */
+    public Object read(Reader reader, Class<?> objClass) throws Exception {
+        if (!SelfDeserializable.class.isAssignableFrom(objClass))
+            return GsonCache.fromJson(objClass, reader);
+
+        SelfDeserializable obj = (SelfDeserializable) objClass.newInstance();
+        return obj.deserialize(reader, objClass);
+    }
+
+    @Override
+    public void write(Object obj, OutputStream out, Configuration configuration) throws Exception {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)));
+        if (!configuration.readable())
+            writer = scrambler.scramblingWriter(writer);
+
+        write(obj, writer);
+        writer.flush();
+    }
+
+    /**
+     * Method that writes a config as readable json
+     * @param obj config to write
+     * @param writer of the json, not flushed
+     * @throws Exception if the config could not be written
+     */
+    public void write(Object obj, Writer writer) throws Exception {
+        if (!SelfSerializable.class.isAssignableFrom(obj.getClass()))
+            GsonCache.get(obj.getClass()).toJson(obj, writer);
+        else
+            ((SelfSerializable) obj).serialise(obj, writer);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.srbarber1997.configuration.metrics;
+
+/**
+ * Listener that is told how long each step of loading and saving configs
+ * takes. Every method does nothing by default, so implementations only
+ * override what they need. Methods may be called concurrently from different
+ * threads, such as when loading in parallel, and should return quickly.
+ * Exceptions thrown by a listener are logged and otherwise ignored
+ * @see com.github.srbarber1997.configuration.ConfigLoader#addListener(LoaderListener)
+ * @see LoaderStatistics
+ */
+public interface LoaderListener {
+
+    /**
+     * Called when an operation has finished, whether or not it succeeded
+     * @param operation that finished
+     * @param nanos time taken in nanoseconds
+     */
+    default void operationFinished(Operation operation, long nanos) { }
+
+    /**
+     * Called when a phase has finished for every config, such as {@link Phase#SETUP}
+     * or {@link Phase#DISTRIBUTE}
+     * @param phase that finished
+     * @param nanos time taken in nanoseconds
+     */
+    default void phaseFinished(Phase phase, long nanos) { }
+
+    /**
+     * Called when a phase has finished for a single config
+     * @param config name of the config, as given by {@link com.github.srbarber1997.configuration.Configuration#name()}
+     * @param phase that finished
+     * @param nanos time taken in nanoseconds
+     */
+    default void configPhaseFinished(String config, Phase phase, long nanos) { }
+
+    /**
+     * Called when a config file has been read
+     * @param config name of the config
+     * @param bytes read from the file
+     */
+    default void bytesRead(String config, long bytes) { }
+
+    /**
+     * Called when a config file has been written
+     * @param config name of the config
+     * @param bytes written to the file
+     */
+    default void bytesWritten(String config, long bytes) { }
+
+    /**
+     * Called when a phase fails
+     * @param config name of the config, or null if the failure is not of a single config
+     * @param phase that failed
+     * @param error that caused the failure
+     */
+    default void failed(String config, Phase phase, Throwable error) { }
+}
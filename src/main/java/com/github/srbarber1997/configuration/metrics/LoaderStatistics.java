@@ -0,0 +1,178 @@
+package com.github.srbarber1997.configuration.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Listener that keeps the statistics of the latest load, reload and save,
+ * along with totals since it was created. Registered as an MBean by
+ * {@link com.github.srbarber1997.configuration.ConfigLoader#useJmx(boolean)}
+ * so the statistics can be seen with tools like JConsole
+ */
+public class LoaderStatistics implements LoaderListener, LoaderStatisticsMBean {
+
+    private final Map<Operation, AtomicLong> counts = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> lastNanos = new EnumMap<>(Operation.class);
+    private final Map<Phase, AtomicLong> lastPhaseNanos = new EnumMap<>(Phase.class);
+    private final Map<String, Map<Phase, Long>> configNanos = new ConcurrentHashMap<>();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile String lastError;
+
+    public LoaderStatistics() {
+        for (Operation operation : Operation.values()) {
+            counts.put(operation, new AtomicLong());
+            lastNanos.put(operation, new AtomicLong());
+        }
+        for (Phase phase : Phase.values())
+            lastPhaseNanos.put(phase, new AtomicLong());
+    }
+
+    @Override
+    public void operationFinished(Operation operation, long nanos) {
+        counts.get(operation).incrementAndGet();
+        lastNanos.get(operation).set(nanos);
+    }
+
+    @Override
+    public void phaseFinished(Phase phase, long nanos) {
+        lastPhaseNanos.get(phase).set(nanos);
+    }
+
+    @Override
+    public void configPhaseFinished(String config, Phase phase, long nanos) {
+        configNanos.computeIfAbsent(config, name -> new ConcurrentHashMap<>()).put(phase, nanos);
+    }
+
+    @Override
+    public void bytesRead(String config, long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    @Override
+    public void bytesWritten(String config, long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    @Override
+    public void failed(String config, Phase phase, Throwable error) {
+        errors.incrementAndGet();
+        lastError = (config != null ? config + " " : "") + phase + ": " + error;
+    }
+
+    @Override
+    public long getLoadCount() {
+        return counts.get(Operation.LOAD).get();
+    }
+
+    @Override
+    public long getReloadCount() {
+        return counts.get(Operation.RELOAD).get();
+    }
+
+    @Override
+    public long getSaveCount() {
+        return counts.get(Operation.SAVE).get();
+    }
+
+    @Override
+    public long getLastLoadMillis() {
+        return millis(lastNanos.get(Operation.LOAD).get());
+    }
+
+    @Override
+    public long getLastReloadMillis() {
+        return millis(lastNanos.get(Operation.RELOAD).get());
+    }
+
+    @Override
+    public long getLastSaveMillis() {
+        return millis(lastNanos.get(Operation.SAVE).get());
+    }
+
+    @Override
+    public long getLastSetupMillis() {
+        return millis(lastPhaseNanos.get(Phase.SETUP).get());
+    }
+
+    @Override
+    public long getLastDistributeMillis() {
+        return millis(lastPhaseNanos.get(Phase.DISTRIBUTE).get());
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    @Override
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public String getSlowestConfig() {
+        return slowestFirst().stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public String[] getConfigTimings() {
+        return slowestFirst().stream()
+                .map(config -> config + ": " + configNanos.get(config).entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(entry -> entry.getKey().name().toLowerCase() + "=" + millis(entry.getValue()) + "ms")
+                        .collect(Collectors.joining(" ")))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Method to get the latest time taken by each phase of a config
+     * @param config name of the config
+     * @return unmodifiable map of phase to nanoseconds, empty if the config has not been seen
+     */
+    public Map<Phase, Long> getConfigNanos(String config) {
+        Map<Phase, Long> phases = configNanos.get(config);
+        return phases == null ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(phases));
+    }
+
+    @Override
+    public void reset() {
+        counts.values().forEach(count -> count.set(0));
+        lastNanos.values().forEach(nanos -> nanos.set(0));
+        lastPhaseNanos.values().forEach(nanos -> nanos.set(0));
+        configNanos.clear();
+        bytesRead.set(0);
+        bytesWritten.set(0);
+        errors.set(0);
+        lastError = null;
+    }
+
+    private List<String> slowestFirst() {
+        List<String> configs = new ArrayList<>(configNanos.keySet());
+        configs.sort(Comparator.comparingLong(this::totalNanos).reversed());
+        return configs;
+    }
+
+    private long totalNanos(String config) {
+        Map<Phase, Long> phases = configNanos.get(config);
+        return phases == null ? 0 : phases.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
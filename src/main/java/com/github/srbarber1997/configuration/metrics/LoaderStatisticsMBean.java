@@ -0,0 +1,47 @@
+package com.github.srbarber1997.configuration.metrics;
+
+/**
+ * Management interface of {@link LoaderStatistics}, exposed over JMX
+ * @see com.github.srbarber1997.configuration.ConfigLoader#useJmx(boolean)
+ */
+public interface LoaderStatisticsMBean {
+
+    long getLoadCount();
+
+    long getReloadCount();
+
+    long getSaveCount();
+
+    long getLastLoadMillis();
+
+    long getLastReloadMillis();
+
+    long getLastSaveMillis();
+
+    long getLastSetupMillis();
+
+    long getLastDistributeMillis();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    long getErrorCount();
+
+    String getLastError();
+
+    /**
+     * @return name of the config whose latest phases took the longest
+     */
+    String getSlowestConfig();
+
+    /**
+     * @return the latest time taken by each phase of each config, slowest config first
+     */
+    String[] getConfigTimings();
+
+    /**
+     * Clears the statistics
+     */
+    void reset();
+}
@@ -0,0 +1,20 @@
+package com.github.srbarber1997.configuration.metrics;
+
+/**
+ * The operations of the loader, as reported to a {@link LoaderListener}
+ */
+public enum Operation {
+    /**
+     * {@link com.github.srbarber1997.configuration.ConfigLoader#load()}
+     */
+    LOAD,
+    /**
+     * {@link com.github.srbarber1997.configuration.ConfigLoader#reload()},
+     * or reloading configs changed outside of the loader
+     */
+    RELOAD,
+    /**
+     * {@link com.github.srbarber1997.configuration.ConfigLoader#save()} or saving a single config
+     */
+    SAVE
+}
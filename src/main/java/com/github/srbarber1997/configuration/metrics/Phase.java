@@ -0,0 +1,37 @@
+package com.github.srbarber1997.configuration.metrics;
+
+/**
+ * The steps the loader takes to load and save configs, as reported to a {@link LoaderListener}
+ */
+public enum Phase {
+    /**
+     * Finding the configuration fields and models, by reading the index or scanning the classpath
+     */
+    SETUP,
+    /**
+     * Reading the bytes of a config file
+     */
+    READ,
+    /**
+     * Turning the bytes of a config file into the config, including
+     * creating a default config when the file is empty
+     */
+    DESERIALIZE,
+    /**
+     * Calling the 'init' method of a config
+     */
+    INIT,
+    /**
+     * Assigning the configs to their fields
+     */
+    DISTRIBUTE,
+    /**
+     * Turning a config into bytes to find if it has changed since it was last saved,
+     * streamed to a temporary file next to its file
+     */
+    SERIALIZE,
+    /**
+     * Replacing the file of a changed config with the bytes serialized, forced to the disk as its durability asks
+     */
+    WRITE
+}
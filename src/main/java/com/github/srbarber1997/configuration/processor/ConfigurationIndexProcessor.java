@@ -0,0 +1,100 @@
+package com.github.srbarber1997.configuration.processor;
+
+import com.github.srbarber1997.configuration.ConfigLoader;
+import com.github.srbarber1997.configuration.Configuration;
+import com.github.srbarber1997.configuration.ConfigurationModel;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that writes an index of every {@link ConfigurationModel}
+ * type and every {@link Configuration} field at compile time. When the index is
+ * on the classpath the {@link ConfigLoader} reads it instead of scanning the
+ * whole classpath, so setup time depends on the number of configs rather than
+ * the size of the classpath.
+ *
+ * Enable it by adding this library to the annotation processor path, e.g.
+ * {@code annotationProcessor 'com.github.srbarber1997:configuration:+'}
+ * @see ConfigLoader#load()
+ * @author srbarber1997
+ */
+@SupportedAnnotationTypes({
+    "com.github.srbarber1997.configuration.Configuration",
+    "com.github.srbarber1997.configuration.ConfigurationModel"
+})
+public class ConfigurationIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Classpath location of the generated index
+     */
+    public static final String INDEX_LOCATION = "META-INF/configuration/configuration.index";
+
+    /**
+     * Prefix of an index line naming a {@link ConfigurationModel} type
+     */
+    public static final String MODEL = "model ";
+
+    /**
+     * Prefix of an index line naming a {@link Configuration} field,
+     * written as {@code declaringClass#fieldName}
+     */
+    public static final String FIELD = "field ";
+
+    private final Set<String> models = new TreeSet<>();
+    private final Set<String> fields = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ConfigurationModel.class))
+            if (element instanceof TypeElement)
+                models.add(binaryName((TypeElement) element));
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(Configuration.class))
+            if (element.getKind() == ElementKind.FIELD)
+                fields.add(binaryName((TypeElement) element.getEnclosingElement())
+                        + "#" + element.getSimpleName());
+
+        if (roundEnv.processingOver() && !(models.isEmpty() && fields.isEmpty()))
+            writeIndex();
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = index.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + "\n");
+                for (String model : models)
+                    writer.write(MODEL + model + "\n");
+                for (String field : fields)
+                    writer.write(FIELD + field + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write configuration index '" + INDEX_LOCATION + "': " + e.getMessage());
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.srbarber1997.configuration.serialise;
+
+import com.github.srbarber1997.configuration.ConfigLoader;
+import com.github.srbarber1997.configuration.ConfigurationModel;
+import com.github.srbarber1997.configuration.SectionedMap;
+import com.github.srbarber1997.configuration.codec.BinaryCodec;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the {@link Gson} instance and {@link TypeAdapter} used for each
+ * {@link ConfigurationModel}. Creating a Gson instance builds its reflective
+ * type adapters again, so reusing them makes repeated loads and saves cheaper.
+ * Invalidate a model if the way it should be serialised changes at runtime
+ * @see ConfigLoader
+ * @see GsonSerialiserConfigBase
+ */
+public final class GsonCache {
+
+    /**
+     * Gson instance shared by models that do not configure their own
+     */
+    private static final Gson DEFAULT = builder().create();
+
+    private static final Map<Class<?>, Gson> gsons = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+    private GsonCache() { }
+
+    /**
+     * Method to get a gson builder set up to read and write configs, which
+     * leaves {@link SectionedMap} fields out of config files and reads maps
+     * from the {@link BinaryCodec binary format}
+     * @return a new gson builder
+     */
+    public static GsonBuilder builder() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(BinaryCodec.typeAdapterFactory())
+                .registerTypeAdapterFactory(SectionedMap.typeAdapterFactory());
+    }
+
+    /**
+     * Method to get the gson instance used for a model
+     * @param model class of the model
+     * @return the cached gson instance, or the default gson instance if none is cached
+     */
+    public static Gson get(Class<?> model) {
+        return gsons.getOrDefault(model, DEFAULT);
+    }
+
+    /**
+     * Method to get the gson instance used for a model, creating and caching
+     * it if it is not already cached
+     * @param model class of the model
+     * @param factory used to create the gson instance when it is not cached
+     * @return the cached gson instance
+     */
+    public static Gson get(Class<?> model, Supplier<Gson> factory) {
+        Gson gson = gsons.get(model);
+        if (gson != null)
+            return gson;
+
+        // Not computeIfAbsent, the factory is user code and may use the cache itself
+        gson = factory.get();
+        if (gson == null)
+            gson = DEFAULT;
+        Gson existing = gsons.putIfAbsent(model, gson);
+        return existing != null ? existing : gson;
+    }
+
+    /**
+     * Method to get the type adapter used to read and write a model
+     * @param model class of the model
+     * @param <T> type of the model
+     * @return the cached type adapter of the model's gson instance, or the type
+     * adapter of the default gson instance if the model has not cached its own
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeAdapter<T> adapter(Class<T> model) {
+        TypeAdapter<T> adapter = (TypeAdapter<T>) adapters.get(model);
+        if (adapter != null)
+            return adapter;
+
+        // Not cached, the model may cache its own gson instance once it is first used
+        Gson gson = gsons.get(model);
+        if (gson == null)
+            return DEFAULT.getAdapter(model);
+        adapter = gson.getAdapter(model);
+        TypeAdapter<T> existing = (TypeAdapter<T>) adapters.putIfAbsent(model, adapter);
+        return existing != null ? existing : adapter;
+    }
+
+    /**
+     * Method that reads a model from json using its cached type adapter.
+     * Behaves the same as {@link Gson#fromJson(Reader, Class)}
+     * @param model class of the model
+     * @param json to read the model from
+     * @param <T> type of the model
+     * @return the model, or null if the json is empty
+     * @throws IOException if the json could not be read
+     */
+    public static <T> T fromJson(Class<T> model, Reader json) throws IOException {
+        JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        T obj = adapter(model).read(reader);
+        if (reader.peek() != JsonToken.END_DOCUMENT)
+            throw new JsonIOException("JSON document was not fully consumed.");
+        return obj;
+    }
+
+    /**
+     * Method to remove the cached gson instance and type adapter of a model,
+     * they will be created again when next used
+     * @param model class of the model
+     */
+    public static void invalidate(Class<?> model) {
+        gsons.remove(model);
+        adapters.remove(model);
+    }
+
+    /**
+     * Method to remove every cached gson instance and type adapter
+     */
+    public static void invalidateAll() {
+        gsons.clear();
+        adapters.clear();
+    }
+}
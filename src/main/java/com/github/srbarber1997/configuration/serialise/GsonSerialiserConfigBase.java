@@ -1,5 +1,6 @@
 package com.github.srbarber1997.configuration.serialise;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 /**
@@ -13,24 +14,35 @@ public abstract class GsonSerialiserConfigBase
 
     @Override
     public Object deserialize(String objString, Class<?> objClass) {
-        GsonBuilder builder = this.serializer(new GsonBuilder());
-        if (builder == null)
-            builder = new GsonBuilder();
-        return builder.create().fromJson(objString, objClass);
+        return gson().fromJson(objString, objClass);
     }
 
     @Override
     public String serialise(Object obj) {
-        GsonBuilder builder = this.serializer(new GsonBuilder());
-        if (builder == null)
-            builder = new GsonBuilder();
-        return builder.create().toJson(obj);
+        return gson().toJson(obj);
+    }
+
+    /**
+     * Method to get the gson serializer of this class. The serializer is
+     * created from {@link GsonSerialiserConfigBase#serializer(GsonBuilder)}
+     * once per class and then reused
+     * @see GsonCache#invalidate(Class)
+     * @return the cached gson serializer
+     */
+    protected Gson gson() {
+        return GsonCache.get(getClass(), () -> {
+            GsonBuilder builder = this.serializer(GsonCache.builder());
+            if (builder == null)
+                builder = GsonCache.builder();
+            return builder.create();
+        });
     }
 
     /**
      * Method that is overwritten by extending classes used to get the
      * gson builder object that can be used to create the object to
-     * serialise and deserialize the a given object
+     * serialise and deserialize the a given object. It is called once
+     * per class, the gson serializer it builds is cached in {@link GsonCache}
      * @param gsonBuilder object
      * @return a gsonBuilder object that will be used to create a gson serializer
      */
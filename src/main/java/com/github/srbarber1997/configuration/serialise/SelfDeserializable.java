@@ -1,16 +1,33 @@
 package com.github.srbarber1997.configuration.serialise;
 
-import com.github.srbarber1997.configuration.ConfigLoader;
+import com.github.srbarber1997.configuration.ConfigSet;
+import com.google.common.io.CharStreams;
+
+import java.io.Reader;
 
 public interface SelfDeserializable {
 
     /**
      * Method that is called when an object needs to be loaded
-     * @see ConfigLoader#configure()
+     * @see ConfigSet#configure()
      * @param objString representation of an object
      * @param objClass of the object represented in the string
      * @return a instance of the objClass
      * @throws Exception if the string cannot be deserialized
      */
     Object deserialize(String objString, Class<?> objClass) throws Exception;
+
+    /**
+     * Method that is called when an object needs to be loaded from a file.
+     * Override this to read the object as it is streamed, by default the
+     * whole stream is read and passed to {@link SelfDeserializable#deserialize(String, Class)}
+     * @see ConfigSet#configure()
+     * @param reader of the representation of an object, closed by the caller
+     * @param objClass of the object represented in the stream
+     * @return a instance of the objClass
+     * @throws Exception if the stream cannot be deserialized
+     */
+    default Object deserialize(Reader reader, Class<?> objClass) throws Exception {
+        return deserialize(CharStreams.toString(reader), objClass);
+    }
 }
@@ -4,6 +4,7 @@ import com.github.srbarber1997.configuration.ConfigLoader;
 import com.github.srbarber1997.configuration.ConfigurationModel;
 
 import java.io.Serializable;
+import java.io.Writer;
 
 /**
  * Interface that should be implemented by all {@link ConfigurationModel}s
@@ -19,4 +20,17 @@ public interface SelfSerializable extends Serializable {
      * @throws Exception if the object could not be serialised
      */
     String serialise(Object obj) throws Exception;
+
+    /**
+     * Method used to serialise this object straight to a file when {@link ConfigLoader#save()}.
+     * Override this to write the object as it is serialised, by default
+     * {@link SelfSerializable#serialise(Object)} is written
+     * @param obj to be serialised. For the implementing class it would be {@code this}
+     *            although 'obj' should be used NOT 'this'
+     * @param writer to write the representation of the object to, closed by the caller
+     * @throws Exception if the object could not be serialised
+     */
+    default void serialise(Object obj, Writer writer) throws Exception {
+        writer.write(serialise(obj));
+    }
 }
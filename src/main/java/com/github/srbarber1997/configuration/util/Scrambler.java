@@ -1,5 +1,11 @@
 package com.github.srbarber1997.configuration.util;
 
+import java.io.FilterReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 /**
  * Class that is used to scramble strings in various ways.
  * !!! <b>This should not be used instead of encryption or hashing</b> !!!
@@ -29,11 +35,9 @@ public class Scrambler {
      * @return scrambled string
      */
     public String scrambleCharacters(String string) {
-        StringBuilder stringBuilder = new StringBuilder();
-        for (char c : string.toCharArray())
-            stringBuilder.append((char) (c - key));
-
-        return stringBuilder.toString();
+        char[] chars = string.toCharArray();
+        shift(chars, 0, chars.length, -key);
+        return new String(chars);
     }
 
     /**
@@ -45,10 +49,108 @@ public class Scrambler {
      * @return unscrambled string
      */
     public String unscrambleCharacters(String string) {
-        StringBuilder stringBuilder = new StringBuilder();
-        for (char c : string.toCharArray())
-            stringBuilder.append((char) (c + key));
+        char[] chars = string.toCharArray();
+        shift(chars, 0, chars.length, key);
+        return new String(chars);
+    }
+
+    /**
+     * Method used to scramble characters as they are written. Gives
+     * the same characters as {@link Scrambler#scrambleCharacters(String)}
+     * without holding the whole string in memory
+     * @param writer to write the scrambled characters to
+     * @return writer that scrambles the characters written to it,
+     * closing it closes the given writer
+     */
+    public Writer scramblingWriter(Writer writer) {
+        return new ShiftingWriter(writer, -key);
+    }
+
+    /**
+     * Method used to unscramble characters as they are read. Gives
+     * the same characters as {@link Scrambler#unscrambleCharacters(String)}
+     * without holding the whole string in memory
+     * @param reader of the scrambled characters
+     * @return reader that unscrambles the characters read from it,
+     * closing it closes the given reader
+     */
+    public Reader unscramblingReader(Reader reader) {
+        return new ShiftingReader(reader, key);
+    }
+
+    private static void shift(char[] chars, int off, int len, int shift) {
+        for (int i = off; i < off + len; i++)
+            chars[i] = (char) (chars[i] + shift);
+    }
+
+    /**
+     * Writer that shifts each character before writing it on,
+     * using one reusable buffer
+     */
+    private static class ShiftingWriter extends FilterWriter {
+
+        private final int shift;
+        private final char[] buffer = new char[1024];
+
+        private ShiftingWriter(Writer out, int shift) {
+            super(out);
+            this.shift = shift;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.write((char) (c + shift));
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            while (len > 0) {
+                int chunk = Math.min(len, buffer.length);
+                System.arraycopy(cbuf, off, buffer, 0, chunk);
+                shift(buffer, 0, chunk, shift);
+                out.write(buffer, 0, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            while (len > 0) {
+                int chunk = Math.min(len, buffer.length);
+                str.getChars(off, off + chunk, buffer, 0);
+                shift(buffer, 0, chunk, shift);
+                out.write(buffer, 0, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+        }
+    }
+
+    /**
+     * Reader that shifts each character in place as it is read
+     */
+    private static class ShiftingReader extends FilterReader {
+
+        private final int shift;
+
+        private ShiftingReader(Reader in, int shift) {
+            super(in);
+            this.shift = shift;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = in.read();
+            return c == -1 ? -1 : (char) (c + shift);
+        }
 
-        return stringBuilder.toString();
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int read = in.read(cbuf, off, len);
+            if (read > 0)
+                shift(cbuf, off, read, shift);
+            return read;
+        }
     }
 }
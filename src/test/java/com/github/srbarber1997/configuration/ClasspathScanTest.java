@@ -0,0 +1,30 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.models.TestConfig;
+import org.junit.Test;
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ClasspathScanTest {
+    private final Collection<URL> urls = Collections.singletonList(ClasspathHelper.forClass(TestConfig.class));
+
+    @Test
+    public void testScanFindsModelsInChosenPackage() {
+        Reflections scan = ClasspathScan.scan(urls, Collections.singletonList("com.github.srbarber1997.configuration.models"));
+        assertTrue(scan.getTypesAnnotatedWith(ConfigurationModel.class, true).contains(TestConfig.class));
+        assertTrue(scan.getFieldsAnnotatedWith(Configuration.class).isEmpty());
+    }
+
+    @Test
+    public void testScanSkipsPackagesSharingAPrefix() {
+        // 'models' starts with 'model' but is not a sub-package of it
+        Reflections scan = ClasspathScan.scan(urls, Collections.singletonList("com.github.srbarber1997.configuration.model"));
+        assertFalse(scan.getTypesAnnotatedWith(ConfigurationModel.class, true).contains(TestConfig.class));
+    }
+}
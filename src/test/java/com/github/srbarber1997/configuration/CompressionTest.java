@@ -0,0 +1,43 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+public class CompressionTest {
+
+    private static byte[] compress(Compression compression, byte[] content) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        compression.compress(out, Deflater.DEFAULT_COMPRESSION, compressed -> compressed.write(content));
+        return out.toByteArray();
+    }
+
+    private static byte[] read(byte[] file) throws IOException {
+        InputStream in = new ByteArrayInputStream(file);
+        return ByteStreams.toByteArray(Compression.detect(in).decompress(in));
+    }
+
+    @Test
+    public void testCompressedFilesAreDetected() throws Exception {
+        byte[] content = "{\"word\":\"compressed\"}".getBytes(StandardCharsets.UTF_8);
+        for (Compression compression : Compression.values()) {
+            byte[] file = compress(compression, content);
+            assertEquals(compression, Compression.detect(new ByteArrayInputStream(file)));
+            assertArrayEquals(content, read(file));
+        }
+    }
+
+    @Test
+    public void testPlainFileStartingLikeZlibIsNotCompressed() throws IOException {
+        // 0x78 0x20 passes the check of a zlib header
+        byte[] file = "x = 1".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(Compression.NONE, Compression.detect(new ByteArrayInputStream(file)));
+        assertArrayEquals(file, read(file));
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import static org.junit.Assert.*;
+
+public class ConfigDiffTest {
+
+    private static ConfigDiff diff(String previous, String current) {
+        JsonParser parser = new JsonParser();
+        JsonElement before = parser.parse(previous);
+        JsonElement after = parser.parse(current);
+        return ConfigDiff.between(before, after);
+    }
+
+    @Test
+    public void testSameJsonHasNoChanges() {
+        assertTrue(diff("{\"a\":1,\"b\":[1,2]}", "{\"a\":1,\"b\":[1,2]}").isEmpty());
+    }
+
+    @Test
+    public void testChangedPathsOfNestedFields() {
+        ConfigDiff diff = diff(
+                "{\"a\":1,\"server\":{\"host\":\"x\",\"port\":80},\"hosts\":[\"a\",\"b\"],\"tags\":[1]}",
+                "{\"a\":1,\"server\":{\"host\":\"x\",\"port\":81},\"hosts\":[\"a\",\"c\"],\"tags\":[1,2],\"added\":true}");
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("server.port", "hosts[1]", "tags", "added")), diff.getChangedPaths());
+        assertTrue(diff.hasChanged("server"));
+        assertTrue(diff.hasChanged("server.port"));
+        assertTrue(diff.hasChanged("tags[0]"));
+        assertFalse(diff.hasChanged("server.host"));
+        assertFalse(diff.hasChanged("a"));
+    }
+}
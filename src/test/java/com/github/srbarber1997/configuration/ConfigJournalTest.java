@@ -0,0 +1,112 @@
+package com.github.srbarber1997.configuration;
+
+import com.google.common.io.Files;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConfigJournalTest {
+    private File directory;
+    private File file;
+
+    @Before
+    public void before() {
+        directory = Files.createTempDir();
+        file = new File(directory, ConfigJournal.FILE_NAME);
+    }
+
+    @After
+    public void after() throws IOException {
+        MoreFiles.deleteRecursively(directory.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testRecordsAreReplayed() throws IOException {
+        ConfigJournal journal = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        String large = "{\"word\":\"a long word to make a snapshot longer than a delta\",\"num\":1,\"nested\":{\"a\":1,\"b\":2}}";
+        int snapshot = journal.append("a", large, false, Durability.NONE);
+        int delta = journal.append("a", large.replace("\"b\":2", "\"b\":3").replace(",\"num\":1", ""), false, Durability.NONE);
+        assertTrue(delta < snapshot);
+        assertEquals(0, journal.append("a", large.replace("\"b\":2", "\"b\":3").replace(",\"num\":1", ""), false, Durability.NONE));
+        journal.append("b", "{\"secret\":\"hidden\"}", true, Durability.FSYNC_FILE);
+        journal.close();
+
+        String contents = Files.asCharSource(file, StandardCharsets.ISO_8859_1).read();
+        assertFalse(contents.contains("hidden"));
+
+        ConfigJournal replayed = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        assertEquals("{\"word\":\"a long word to make a snapshot longer than a delta\",\"nested\":{\"a\":1,\"b\":3}}", replayed.read("a"));
+        assertEquals("{\"secret\":\"hidden\"}", replayed.read("b"));
+        assertNull(replayed.read("c"));
+        replayed.close();
+    }
+
+    @Test
+    public void testTornRecordIsDropped() throws IOException {
+        ConfigJournal journal = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        journal.append("a", "{\"num\":1}", false, Durability.NONE);
+        long complete = journal.length();
+        journal.append("a", "{\"num\":2}", false, Durability.NONE);
+        journal.close();
+        try (RandomAccessFile torn = new RandomAccessFile(file, "rw")) {
+            torn.setLength(torn.length() - 3);
+        }
+
+        ConfigJournal replayed = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        assertEquals("{\"num\":1}", replayed.read("a"));
+        assertEquals(complete, replayed.length());
+        replayed.append("b", "{\"num\":3}", false, Durability.NONE);
+        replayed.close();
+
+        ConfigJournal appended = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        assertEquals("{\"num\":1}", appended.read("a"));
+        assertEquals("{\"num\":3}", appended.read("b"));
+        appended.close();
+    }
+
+    @Test
+    public void testCorruptLengthIsDropped() throws IOException {
+        ConfigJournal journal = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        journal.append("a", "{\"num\":1}", false, Durability.NONE);
+        long complete = journal.length();
+        journal.close();
+        try (RandomAccessFile corrupt = new RandomAccessFile(file, "rw")) {
+            corrupt.seek(corrupt.length());
+            corrupt.writeInt(Integer.MAX_VALUE);
+            corrupt.writeInt(0);
+        }
+
+        ConfigJournal replayed = new ConfigJournal(file, Long.MAX_VALUE, new Logger());
+        assertEquals("{\"num\":1}", replayed.read("a"));
+        assertEquals(complete, replayed.length());
+        replayed.close();
+    }
+
+    @Test
+    public void testJournalIsCompacted() throws IOException, InterruptedException {
+        ConfigJournal journal = new ConfigJournal(file, 1024, new Logger());
+        for (int i = 0; i < 200; i++)
+            journal.append("a", "{\"num\":" + i + "}", false, Durability.NONE);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (journal.length() >= 1024 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertTrue(journal.length() < 1024);
+        journal.close();
+
+        ConfigJournal replayed = new ConfigJournal(file, 1024, new Logger());
+        assertEquals("{\"num\":199}", replayed.read("a"));
+        assertEquals(file.length(), replayed.length());
+        replayed.close();
+    }
+}
@@ -1,6 +1,9 @@
 package com.github.srbarber1997.configuration;
 
+import com.github.srbarber1997.configuration.metrics.LoaderStatistics;
+import com.github.srbarber1997.configuration.metrics.Phase;
 import com.github.srbarber1997.configuration.models.*;
+import com.google.common.io.Files;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
 import com.google.gson.Gson;
@@ -8,9 +11,19 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import javax.management.ObjectName;
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -199,4 +212,446 @@ public class ConfigLoaderTest {
 
         TestConfigWithInitMethodOnReload.setThrowable(null);
     }
+
+    @Test
+    public void testParallelLoading() {
+        ConfigLoader.useParallelLoading(true);
+        try {
+            ConfigLoader.reload();
+        } finally {
+            ConfigLoader.useParallelLoading(false);
+        }
+
+        assertNotNull(config1);
+        assertNotNull(config2);
+        assertSame(config2, config3);
+        assertEquals(1, configWithDefault.num);
+    }
+
+    @Test
+    public void testUnchangedConfigsAreNotSaved() throws IOException {
+        ConfigLoader.save();
+        ConfigLoader.reload();
+        File file = new File(directory, "test2.config");
+        Files.write("{\"word\":\"edited\",\"num\":3}", file, StandardCharsets.UTF_8);
+
+        ConfigLoader.save();
+        assertEquals("{\"word\":\"edited\",\"num\":3}", Files.toString(file, StandardCharsets.UTF_8));
+
+        config2.setWord("changed");
+        ConfigLoader.save("test2");
+        ConfigLoader.reload();
+        assertEquals("changed", config2.getWord());
+        assertEquals(0, config2.getNum());
+    }
+
+    @Configuration(name = "durable", durability = Durability.FSYNC_DIRECTORY)
+    private static TestConfig durableConfig;
+
+    @Test
+    public void testDurableSaveReplacesFile() {
+        ConfigLoader.reload();
+        durableConfig.setNum(7);
+        ConfigLoader.save("durable");
+
+        assertFalse(new File(directory, "durable.config" + AtomicFileWriter.TEMP_SUFFIX).exists());
+        ConfigLoader.reload();
+        assertEquals(7, durableConfig.getNum());
+    }
+
+    @Test
+    public void testSnapshotIsPublishedOnReload() {
+        ConfigLoader.reload();
+        ConfigSnapshot before = ConfigLoader.snapshot();
+        assertSame(config2, before.get("test2", TestConfig.class));
+
+        ConfigLoader.reload();
+        ConfigSnapshot after = ConfigLoader.snapshot();
+        assertEquals(before.getGeneration() + 1, after.getGeneration());
+        assertSame(config2, after.get("test2", TestConfig.class));
+        assertNotSame(before.get("test2", TestConfig.class), after.get("test2", TestConfig.class));
+        assertEquals(before.getNames(), after.getNames());
+    }
+
+    @Configuration(name = "slow init")
+    private static TestConfigWithSlowInit slowInitConfig;
+
+    @Configuration(name = "init dependency")
+    private static TestConfigWithInitDependency initDependencyConfig;
+
+    @Test
+    public void testParallelInitRespectsDependencies() {
+        ConfigLoader.useParallelInit(true);
+        try {
+            TestConfigWithSlowInit.setInitiated(false);
+            ConfigLoader.reload();
+        } finally {
+            ConfigLoader.useParallelInit(false);
+        }
+        assertTrue(TestConfigWithSlowInit.isInitiated());
+        assertTrue(initDependencyConfig.isDependencyInitiated());
+    }
+
+    @Configuration(name = "lazy", lazy = true)
+    private static LazyConfiguration<TestConfig> lazyConfig;
+
+    @Test
+    public void testLazyConfigIsLoadedOnFirstUse() {
+        ConfigLoader.reload();
+        assertFalse(lazyConfig.isLoaded());
+        assertFalse(ConfigLoader.snapshot().contains("lazy"));
+
+        TestConfig config = lazyConfig.get();
+        assertNotNull(config);
+        assertTrue(lazyConfig.isLoaded());
+        assertSame(config, lazyConfig.get());
+        assertSame(config, ConfigLoader.snapshot().get("lazy", TestConfig.class));
+
+        config.setNum(11);
+        ConfigLoader.save("lazy");
+        ConfigLoader.reload();
+        assertFalse(lazyConfig.isLoaded());
+        assertEquals(11, lazyConfig.get().getNum());
+    }
+
+    @Configuration(name = "metrics")
+    private static TestConfig metricsConfig;
+
+    @Test
+    public void testListenersAreToldPhaseTimings() throws Exception {
+        LoaderStatistics statistics = new LoaderStatistics();
+        ConfigLoader.addListener(statistics);
+        try {
+            metricsConfig.setNum(metricsConfig.getNum() + 1);
+            ConfigLoader.save("metrics");
+            ConfigLoader.reload();
+        } finally {
+            ConfigLoader.removeListener(statistics);
+        }
+
+        assertEquals(1, statistics.getReloadCount());
+        assertEquals(1, statistics.getSaveCount());
+        assertTrue(statistics.getBytesRead() > 0);
+        assertTrue(statistics.getBytesWritten() > 0);
+        assertEquals(0, statistics.getErrorCount());
+        assertTrue(statistics.getConfigNanos("metrics").keySet().containsAll(
+                Arrays.asList(Phase.READ, Phase.DESERIALIZE, Phase.SERIALIZE, Phase.WRITE)));
+        assertTrue(statistics.getConfigNanos("init").containsKey(Phase.INIT));
+
+        ConfigLoader.useJmx(true);
+        try {
+            ConfigLoader.reload();
+            Object count = ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(new ObjectName("com.github.srbarber1997.configuration:type=ConfigLoader"), "ReloadCount");
+            assertEquals(1L, count);
+        } finally {
+            ConfigLoader.useJmx(false);
+        }
+    }
+
+    @Configuration(name = "writeBehind")
+    private static TestConfig writeBehindConfig;
+
+    @Test
+    public void testWriteBehindSavesModifiedConfigs() throws IOException, InterruptedException {
+        ConfigLoader.reload();
+        File file = new File(directory, "writeBehind.config");
+        ConfigLoader.startWriteBehind(1, TimeUnit.HOURS, 100);
+        try {
+            writeBehindConfig.setNum(3);
+            ConfigLoader.markModified("writeBehind");
+            writeBehindConfig.setNum(4);
+            ConfigLoader.markModified("writeBehind");
+            assertFalse(Files.asCharSource(file, StandardCharsets.UTF_8).read().contains("4"));
+        } finally {
+            ConfigLoader.stopWriteBehind();
+        }
+
+        ConfigLoader.reload();
+        assertEquals(4, writeBehindConfig.getNum());
+
+        ConfigLoader.startWriteBehind(1, TimeUnit.HOURS, 1);
+        try {
+            writeBehindConfig.setNum(5);
+            ConfigLoader.markModified("writeBehind");
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (!Files.asCharSource(file, StandardCharsets.UTF_8).read().contains("5") && System.currentTimeMillis() < deadline)
+                Thread.sleep(20);
+        } finally {
+            ConfigLoader.stopWriteBehind();
+        }
+        ConfigLoader.reload();
+        assertEquals(5, writeBehindConfig.getNum());
+    }
+
+    @Configuration(name = "watched")
+    private static TestConfig watchedConfig;
+
+    @Test
+    public void testWatcherReloadsOnlyChangedConfigs() throws IOException, InterruptedException {
+        ConfigLoader.reload();
+        config1 = null;
+        ConfigLoader.startWatching(50, TimeUnit.MILLISECONDS);
+        try {
+            Files.write("{\"word\":\"watched\",\"num\":42}", new File(directory, "watched.config"), StandardCharsets.UTF_8);
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (watchedConfig.getNum() != 42 && System.currentTimeMillis() < deadline)
+                Thread.sleep(20);
+        } finally {
+            ConfigLoader.stopWatching();
+        }
+
+        assertEquals(42, watchedConfig.getNum());
+        assertEquals("watched", watchedConfig.getWord());
+        assertNull(config1);
+    }
+
+    @Configuration(name = "multiline")
+    private static TestConfig multilineConfig;
+
+    @Test
+    public void testLoadsMultilineJson() throws IOException {
+        Files.write("{\n  \"word\": \"a\\nb\",\n  \"num\": 11\n}\n", new File(directory, "multiline.config"), StandardCharsets.UTF_8);
+        ConfigLoader.reload();
+
+        assertEquals("a\nb", multilineConfig.getWord());
+        assertEquals(11, multilineConfig.getNum());
+    }
+
+    @Configuration(name = "binary", format = Format.BINARY)
+    private static TestConfig binaryConfig;
+
+    @Test
+    public void testBinaryFormat() throws IOException {
+        ConfigLoader.reload();
+        binaryConfig.setWord("binary");
+        binaryConfig.setNum(12);
+        ConfigLoader.save("binary");
+
+        File file = new File(directory, "binary.config");
+        assertEquals(0, Files.toByteArray(file)[0]);
+        ConfigLoader.reload();
+        assertEquals("binary", binaryConfig.getWord());
+        assertEquals(12, binaryConfig.getNum());
+
+        assertTrue(FormatConverter.convert(file, Format.JSON, true));
+        assertEquals("{\"word\":\"binary\",\"num\":12}", Files.toString(file, StandardCharsets.UTF_8));
+        ConfigLoader.reload();
+        assertEquals(12, binaryConfig.getNum());
+    }
+
+    @Configuration(name = "tenant")
+    private static TestConfig tenantConfig;
+
+    @Test
+    public void testConfigSetsAreIsolated() throws IOException {
+        File first = Files.createTempDir();
+        File second = Files.createTempDir();
+        Files.write("{\"word\":\"first\",\"num\":1}", new File(first, "tenant.config"), StandardCharsets.UTF_8);
+        ConfigLoader.reload();
+        TestConfig loaderConfig = tenantConfig;
+
+        ConfigSet firstSet = new ConfigSet(first);
+        ConfigSet secondSet = new ConfigSet(second);
+        try {
+            firstSet.load(false);
+            secondSet.load(false);
+            assertEquals(1, firstSet.get("tenant", TestConfig.class).getNum());
+            assertEquals(0, secondSet.get("tenant", TestConfig.class).getNum());
+
+            secondSet.get("tenant", TestConfig.class).setNum(2);
+            secondSet.save("tenant");
+            firstSet.reload();
+            secondSet.reload();
+            assertEquals(1, firstSet.get("tenant", TestConfig.class).getNum());
+            assertEquals(2, secondSet.get("tenant", TestConfig.class).getNum());
+            assertSame(loaderConfig, tenantConfig);
+        } finally {
+            firstSet.close();
+            secondSet.close();
+            MoreFiles.deleteRecursively(first.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+            MoreFiles.deleteRecursively(second.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    public void testJournaledConfigSet() throws IOException {
+        File journaled = Files.createTempDir();
+        // A config file is read until the config is saved into the journal
+        Files.write("{\"word\":\"file\",\"num\":1}", new File(journaled, "tenant.config"), StandardCharsets.UTF_8);
+        ConfigSet set = new ConfigSet(journaled);
+        set.useJournal(true);
+        try {
+            set.load(false);
+            assertEquals("file", set.get("tenant", TestConfig.class).getWord());
+
+            set.get("tenant", TestConfig.class).setNum(2);
+            set.save();
+            assertTrue(new File(journaled, "configs.journal").isFile());
+            assertFalse(new File(journaled, "test1.config").exists());
+
+            set.get("tenant", TestConfig.class).setWord("journal");
+            set.save("tenant");
+            set.reload();
+            assertEquals("journal", set.get("tenant", TestConfig.class).getWord());
+            assertEquals(2, set.get("tenant", TestConfig.class).getNum());
+        } finally {
+            set.close();
+        }
+
+        ConfigSet reopened = new ConfigSet(journaled);
+        reopened.useJournal(true);
+        try {
+            reopened.load(false);
+            assertEquals("journal", reopened.get("tenant", TestConfig.class).getWord());
+        } finally {
+            reopened.close();
+            MoreFiles.deleteRecursively(journaled.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+
+    @Configuration(name = "changes")
+    private static TestConfig changesConfig;
+
+    @Test
+    public void testChangeListenersAreToldFieldDiffs() throws IOException {
+        ConfigLoader.reload();
+        List<ConfigDiff> diffs = new ArrayList<>();
+        ConfigChangeListener<TestConfig> listener = (previous, current, diff) -> {
+            assertNotSame(previous, current);
+            assertEquals("changed", current.getWord());
+            diffs.add(diff);
+        };
+        ConfigLoader.addChangeListener("changes", TestConfig.class, listener);
+        try {
+            ConfigLoader.reload();
+            assertTrue(diffs.isEmpty());
+
+            Files.write("{\"word\":\"changed\",\"num\":0}", new File(directory, "changes.config"), StandardCharsets.UTF_8);
+            ConfigLoader.reload();
+            assertEquals(1, diffs.size());
+            assertEquals(Collections.singleton("word"), diffs.get(0).getChangedPaths());
+
+            ConfigLoader.reload();
+            assertEquals(1, diffs.size());
+        } finally {
+            ConfigLoader.removeChangeListener("changes", listener);
+        }
+    }
+
+    @Configuration(name = "patched")
+    private static TestConfig patchedConfig;
+
+    @Test
+    public void testInPlaceReloadKeepsInstances() throws IOException {
+        ConfigLoader.reload();
+        TestConfig loaded = patchedConfig;
+        List<ConfigDiff> diffs = new ArrayList<>();
+        ConfigChangeListener<TestConfig> listener = (previous, current, diff) -> diffs.add(diff);
+        ConfigLoader.addChangeListener("patched", TestConfig.class, listener);
+        ConfigLoader.useInPlaceReload(true);
+        try {
+            Files.write("{\"word\":\"patched\",\"num\":7}", new File(directory, "patched.config"), StandardCharsets.UTF_8);
+            ConfigLoader.reload();
+
+            assertSame(loaded, patchedConfig);
+            assertSame(loaded, ConfigLoader.snapshot().get("patched", TestConfig.class));
+            assertEquals("patched", loaded.getWord());
+            assertEquals(7, loaded.getNum());
+            assertEquals(1, diffs.size());
+            assertEquals(new HashSet<>(Arrays.asList("word", "num")), diffs.get(0).getChangedPaths());
+        } finally {
+            ConfigLoader.useInPlaceReload(false);
+            ConfigLoader.removeChangeListener("patched", listener);
+        }
+    }
+
+    @Configuration(name = "gzip", compression = Compression.GZIP, compressionLevel = 9)
+    private static TestConfig gzipConfig;
+
+    @Configuration(name = "deflate", compression = Compression.DEFLATE, format = Format.BINARY)
+    private static TestConfig deflateConfig;
+
+    @Test
+    public void testCompressedConfigs() throws IOException {
+        File gzip = new File(directory, "gzip.config");
+        File deflate = new File(directory, "deflate.config");
+        // Uncompressed files are read and compressed on the next save
+        Files.write("{\"word\":\"plain\",\"num\":1}", gzip, StandardCharsets.UTF_8);
+        ConfigLoader.reload();
+        assertEquals("plain", gzipConfig.getWord());
+
+        gzipConfig.setNum(13);
+        deflateConfig.setWord("deflated");
+        ConfigLoader.save("gzip");
+        ConfigLoader.save("deflate");
+
+        byte[] gzipBytes = Files.toByteArray(gzip);
+        assertEquals((byte) 0x1f, gzipBytes[0]);
+        assertEquals((byte) 0x8b, gzipBytes[1]);
+        byte[] deflateBytes = Files.toByteArray(deflate);
+        assertEquals('C', deflateBytes[1]);
+        assertEquals('Z', deflateBytes[2]);
+        assertEquals(0x78, deflateBytes[5]);
+
+        ConfigLoader.reload();
+        assertEquals(13, gzipConfig.getNum());
+        assertEquals("deflated", deflateConfig.getWord());
+
+        // Unchanged configs compress to the same bytes, so are not written again
+        long modified = gzip.lastModified();
+        assertTrue(gzip.setLastModified(modified - 10000));
+        ConfigLoader.save("gzip");
+        assertEquals(modified - 10000, gzip.lastModified());
+    }
+
+    @Configuration(name = "sections")
+    private static TestConfigWithSections sectionsConfig;
+
+    @Test
+    public void testSectionedFieldsAreChunked() throws IOException {
+        File sections = new File(directory, "sections.sections/entries");
+        // Entries of a file written before the field was sectioned are moved into the section
+        Files.write("{\"title\":\"chunked\",\"entries\":{\"old\":{\"stuff\":\"kept\",\"moreStuff\":1}}}",
+                new File(directory, "sections.config"), StandardCharsets.UTF_8);
+        ConfigLoader.reload();
+        SectionedMap<String, TestConfig2> entries = sectionsConfig.getEntries();
+        assertEquals("kept", entries.get("old").getStuff());
+
+        for (int i = 0; i < 100; i++)
+            entries.put("key" + i, new TestConfig2("value" + i, i));
+        assertEquals(101, entries.size());
+        ConfigLoader.save("sections");
+
+        String json = Files.asCharSource(new File(directory, "sections.config"), StandardCharsets.UTF_8).read();
+        assertTrue(json.contains("chunked"));
+        assertFalse(json.contains("kept"));
+        assertTrue(new File(sections, "index").isFile());
+        assertTrue(entries.getResidentChunks() <= 2);
+
+        ConfigLoader.reload();
+        SectionedMap<String, TestConfig2> reloaded = sectionsConfig.getEntries();
+        assertNotSame(entries, reloaded);
+        assertEquals(0, reloaded.getResidentChunks());
+        assertEquals(101, reloaded.size());
+        assertEquals(42, reloaded.get("key42").getMoreStuff());
+        assertEquals(1, reloaded.getResidentChunks());
+
+        int count = 0;
+        for (Map.Entry<String, TestConfig2> entry : reloaded.entrySet()) {
+            if (!entry.getKey().equals("old"))
+                assertEquals("value" + entry.getValue().getMoreStuff(), entry.getValue().getStuff());
+            count++;
+        }
+        assertEquals(101, count);
+        assertTrue(reloaded.getResidentChunks() <= 2);
+
+        reloaded.remove("old");
+        ConfigLoader.save("sections");
+        ConfigLoader.reload();
+        assertNull(sectionsConfig.getEntries().get("old"));
+        assertEquals(100, sectionsConfig.getEntries().size());
+    }
 }
@@ -0,0 +1,25 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.models.TestConfig;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConfigurationIndexTest {
+
+    @Test
+    public void testIndexIsGeneratedForTestSources() throws NoSuchFieldException {
+        ConfigurationIndex index = ConfigurationIndex.read(getClass().getClassLoader(), new Logger());
+
+        assertNotNull(index);
+        assertTrue(index.getModels().contains(TestConfig.class));
+        assertTrue(index.getFields().contains(ConfigLoaderTest.class.getDeclaredField("config1")));
+    }
+
+    @Test
+    public void testNoIndexWithoutResource() {
+        ClassLoader empty = new ClassLoader(null) { };
+
+        assertNull(ConfigurationIndex.read(empty, new Logger()));
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.srbarber1997.configuration;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class InPlacePatcherTest {
+
+    private static class Server {
+        private String host;
+        private int port;
+
+        Server(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+    }
+
+    private static class Settings {
+        private String name;
+        private Server server;
+        private List<Server> backends = new ArrayList<>();
+        private Map<String, Integer> limits = new HashMap<>();
+        private List<String> fixed = Collections.singletonList("a");
+    }
+
+    private static class Indexed {
+        private List<Server> servers = new ArrayList<>();
+        private transient Map<String, Server> byHost;
+
+        public void init() {
+            byHost = new HashMap<>();
+            for (Server server : servers)
+                byHost.put(server.host, server);
+        }
+    }
+
+    @Test
+    public void testMergesChangedFieldsIntoExistingInstances() {
+        Settings target = new Settings();
+        target.name = "old";
+        target.server = new Server("host", 80);
+        target.backends.add(new Server("a", 1));
+        target.backends.add(new Server("b", 2));
+        target.limits.put("x", 1);
+        target.limits.put("y", 2);
+        Server server = target.server;
+        Server first = target.backends.get(0);
+        List<Server> backends = target.backends;
+
+        Settings source = new Settings();
+        source.name = "new";
+        source.server = new Server("host", 81);
+        source.backends.add(new Server("a", 1));
+        source.limits.put("x", 1);
+        source.limits.put("z", 3);
+        source.fixed = Collections.singletonList("b");
+
+        assertSame(target, InPlacePatcher.patch(target, source));
+        assertEquals("new", target.name);
+        assertSame(server, target.server);
+        assertEquals(81, server.port);
+        assertSame(backends, target.backends);
+        assertEquals(1, backends.size());
+        assertSame(first, backends.get(0));
+        assertEquals(new HashSet<>(Arrays.asList("x", "z")), target.limits.keySet());
+        assertEquals(Collections.singletonList("b"), target.fixed);
+    }
+
+    @Test
+    public void testReplacesInstancesOfAnotherClass() {
+        Object source = new Settings();
+
+        assertSame(source, InPlacePatcher.patch(new Server("a", 1), source));
+        assertSame(source, InPlacePatcher.patch(null, source));
+    }
+
+    private static class Holder {
+        private String name;
+        private List<String> names;
+    }
+
+    @Test
+    public void testUndoesMergeThatFailsPartWay() {
+        Holder target = new Holder();
+        target.name = "old";
+        // Allows set but not add, so the merge fails after changing the first element
+        target.names = Arrays.asList("a");
+        List<String> names = target.names;
+        Holder source = new Holder();
+        source.name = "new";
+        source.names = Arrays.asList("b", "c");
+
+        assertSame(target, InPlacePatcher.patch(target, source));
+        assertEquals("new", target.name);
+        assertSame(source.names, target.names);
+        assertEquals(Collections.singletonList("a"), names);
+    }
+
+    private static class Timer extends java.util.Observable {
+        private int delay;
+    }
+
+    @Test
+    public void testReplacesInstancesExtendingJreClasses() {
+        Timer target = new Timer();
+        Timer source = new Timer();
+        source.delay = 5;
+
+        assertSame(source, InPlacePatcher.patch(target, source));
+        assertEquals(0, target.delay);
+    }
+
+    @Test
+    public void testTransientFieldsAreKept() {
+        Indexed target = new Indexed();
+        target.servers.add(new Server("a", 1));
+        target.init();
+        Map<String, Server> byHost = target.byHost;
+
+        Indexed source = new Indexed();
+        source.servers.add(new Server("a", 2));
+
+        InPlacePatcher.patch(target, source);
+        assertSame(byHost, target.byHost);
+        assertEquals(2, target.byHost.get("a").port);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.metrics.LoaderListener;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class InitRunnerTest {
+
+    private static InitRunner.Init init(String name, long timeout, Runnable runnable, String... dependsOn) {
+        return new InitRunner.Init(name, new LinkedHashSet<>(Arrays.asList(dependsOn)), timeout, runnable);
+    }
+
+    @Test
+    public void testRunsInitsAfterTheirDependencies() {
+        List<String> order = new ArrayList<>();
+        new InitRunner(new Logger(), new LoaderListener() { }).run(Arrays.asList(
+                init("a", 0, () -> order.add("a"), "c"),
+                init("b", 0, () -> order.add("b")),
+                init("c", 0, () -> order.add("c"), "b", "missing")
+        ));
+        assertEquals(Arrays.asList("b", "c", "a"), order);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCyclicDependenciesAreRejected() {
+        InitRunner.order(Arrays.asList(
+                init("a", 0, () -> { }, "b"),
+                init("b", 0, () -> { }, "a")
+        ));
+    }
+
+    @Test
+    public void testParallelInitsTimeOutAndSkipDependents() {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            List<Throwable> failures = new InitRunner(new Logger(), new LoaderListener() { }).run(Arrays.asList(
+                    init("slow", 50, () -> {
+                        try {
+                            Thread.sleep(10000);
+                        } catch (InterruptedException e) {
+                            order.add("interrupted");
+                        }
+                    }),
+                    init("dependent", 0, () -> order.add("dependent"), "slow"),
+                    init("independent", 0, () -> order.add("independent"))
+            ), executor);
+
+            assertEquals(2, failures.size());
+            assertTrue(failures.stream().map(Throwable::getMessage).collect(Collectors.joining()).contains("50 ms"));
+            assertTrue(order.contains("independent"));
+            assertFalse(order.contains("dependent"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.srbarber1997.configuration;
+
+import com.github.srbarber1997.configuration.models.TestConfig;
+import com.google.common.io.Files;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScanCacheTest {
+    private File directory;
+
+    @Before
+    public void before() {
+        directory = Files.createTempDir();
+    }
+
+    @After
+    public void after() throws IOException {
+        MoreFiles.deleteRecursively(directory.toPath(), RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testFingerprintChangesWithClasspath() throws IOException {
+        File classes = new File(directory, "classes");
+        File model = new File(classes, "a/Model.class");
+        Files.createParentDirs(model);
+        Files.write("model", model, StandardCharsets.UTF_8);
+        List<URL> urls = Collections.singletonList(classes.toURI().toURL());
+        List<String> packages = Collections.singletonList("");
+
+        String fingerprint = ScanCache.fingerprint(packages, urls);
+        assertEquals(fingerprint, ScanCache.fingerprint(packages, urls));
+
+        Files.write("changed model", model, StandardCharsets.UTF_8);
+        String changed = ScanCache.fingerprint(packages, urls);
+        assertNotEquals(fingerprint, changed);
+        assertNotEquals(changed, ScanCache.fingerprint(Collections.singletonList("a"), urls));
+    }
+
+    @Test
+    public void testCachedScanIsOnlyReadForSameFingerprint() throws NoSuchFieldException {
+        File cache = new File(directory, "scan.cache");
+        Field field = ConfigLoaderTest.class.getDeclaredField("config1");
+        ClassLoader classLoader = getClass().getClassLoader();
+        ScanCache.write(cache, "abc", Collections.singleton(TestConfig.class), Collections.singleton(field), new Logger());
+
+        ConfigurationIndex cached = ScanCache.read(cache, "abc", classLoader, new Logger());
+        assertNotNull(cached);
+        assertEquals(Collections.singleton(TestConfig.class), cached.getModels());
+        assertEquals(Collections.singleton(field), cached.getFields());
+
+        assertNull(ScanCache.read(cache, "def", classLoader, new Logger()));
+        assertNull(ScanCache.read(new File(directory, "missing.cache"), "abc", classLoader, new Logger()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.srbarber1997.configuration;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WriteBehindTest {
+
+    @Test
+    public void testConfigModifiedAfterCloseIsSaved() {
+        List<String> saved = Collections.synchronizedList(new ArrayList<>());
+        WriteBehind writeBehind = new WriteBehind(1, TimeUnit.HOURS, 1, saved::add, new Logger());
+        writeBehind.modified("before");
+        assertTrue(writeBehind.close(5, TimeUnit.SECONDS));
+        assertTrue(saved.contains("before"));
+
+        writeBehind.modified("after");
+        assertEquals("after", saved.get(saved.size() - 1));
+    }
+}
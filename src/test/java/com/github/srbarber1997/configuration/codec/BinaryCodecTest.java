@@ -0,0 +1,122 @@
+package com.github.srbarber1997.configuration.codec;
+
+import com.github.srbarber1997.configuration.serialise.GsonCache;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BinaryCodecTest {
+
+    private static byte[] encode(String json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter writer = BinaryCodec.newWriter(out);
+        BinaryCodec.copy(new JsonReader(new StringReader(json)), writer);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    private static String decode(byte[] bytes) throws IOException {
+        StringWriter json = new StringWriter();
+        BinaryCodec.copy(BinaryCodec.newReader(new ByteArrayInputStream(bytes)), new JsonWriter(json));
+        return json.toString();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        String json = "{\"a\":[1,-2,3.5,null,true,false,\"x\"],"
+                + "\"b\":{\"a\":\"x\",\"big\":123456789012345678901234567890,\"min\":" + Long.MIN_VALUE + "},"
+                + "\"c\":\"\\u00e9\\n\",\"d\":[],\"e\":{}}";
+
+        assertEquals(new JsonParser().parse(json).toString(), decode(encode(json)));
+    }
+
+    @Test
+    public void testRepeatedStringsAreStoredOnce() throws IOException {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 100; i++)
+            builder.append(i == 0 ? "" : ",").append("{\"a long key name\":\"a long value\"}");
+        String json = builder.append("]").toString();
+
+        byte[] bytes = encode(json);
+
+        assertTrue(bytes.length < json.length() / 4);
+        assertEquals(json, decode(bytes));
+    }
+
+    @Test
+    public void testModelIsStreamed() throws Exception {
+        Model model = new Model();
+        model.name = "model";
+        model.weights = Arrays.asList(0.5, -1.0, 1e300);
+        model.counts = new LinkedHashMap<>();
+        model.counts.put("a", 1);
+        model.counts.put("b", Integer.MIN_VALUE);
+        model.names = new LinkedHashMap<>();
+        model.names.put(7L, "seven");
+        model.child = new Model();
+        model.child.name = "child";
+
+        BinaryCodec codec = new BinaryCodec();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(model, out);
+        Model read = (Model) codec.read(new ByteArrayInputStream(out.toByteArray()), Model.class);
+
+        assertEquals("model", read.name);
+        assertEquals(model.weights, read.weights);
+        assertEquals(model.counts, read.counts);
+        assertEquals(model.names, read.names);
+        assertEquals("child", read.child.name);
+        assertNull(read.child.weights);
+    }
+
+    @Test
+    public void testMapsAreReadWithoutTheMapAdapter() throws Exception {
+        GsonCache.get(Model.class, Gson::new);
+        try {
+            Model model = new Model();
+            model.counts = Collections.singletonMap("a", 1);
+            model.names = Collections.singletonMap(7L, "seven");
+
+            BinaryCodec codec = new BinaryCodec();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            codec.write(model, out);
+            Model read = (Model) codec.read(new ByteArrayInputStream(out.toByteArray()), Model.class);
+
+            assertEquals(model.counts, read.counts);
+            assertEquals(model.names, read.names);
+        } finally {
+            GsonCache.invalidate(Model.class);
+        }
+    }
+
+    @Test
+    public void testCountedEncodingIsRead() throws IOException {
+        // {"a":[1]} with the number of entries and items written before each object and array
+        byte[] bytes = { 9, 2, 6, 2, 'a', 8, 2, 3, 2 };
+
+        assertEquals("{\"a\":[1]}", decode(bytes));
+    }
+
+    @Test(expected = EOFException.class)
+    public void testCorruptLengthFailsAtTheEndOfTheStream() throws IOException {
+        // A string claiming to be Integer.MAX_VALUE bytes long, followed by one byte
+        byte[] bytes = { 6, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 'a' };
+
+        decode(bytes);
+    }
+
+    private static class Model {
+        private String name;
+        private List<Double> weights;
+        private Map<String, Integer> counts;
+        private Map<Long, String> names;
+        private Model child;
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.srbarber1997.configuration.models;
+
+import com.github.srbarber1997.configuration.ConfigurationModel;
+
+@ConfigurationModel(initDependsOn = "slow init", initTimeout = 5000)
+public class TestConfigWithInitDependency {
+    private transient boolean dependencyInitiated = false;
+
+    public void init() {
+        dependencyInitiated = TestConfigWithSlowInit.isInitiated();
+    }
+
+    public boolean isDependencyInitiated() {
+        return dependencyInitiated;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.srbarber1997.configuration.models;
+
+import com.github.srbarber1997.configuration.ConfigurationModel;
+import com.github.srbarber1997.configuration.Sectioned;
+import com.github.srbarber1997.configuration.SectionedMap;
+
+@ConfigurationModel
+public class TestConfigWithSections {
+    private String title = "";
+
+    @Sectioned(chunks = 8, residentChunks = 2)
+    private SectionedMap<String, TestConfig2> entries = new SectionedMap<>();
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public SectionedMap<String, TestConfig2> getEntries() {
+        return entries;
+    }
+}
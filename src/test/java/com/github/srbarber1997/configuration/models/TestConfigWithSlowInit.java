@@ -0,0 +1,21 @@
+package com.github.srbarber1997.configuration.models;
+
+import com.github.srbarber1997.configuration.ConfigurationModel;
+
+@ConfigurationModel
+public class TestConfigWithSlowInit {
+    private static volatile boolean initiated = false;
+
+    public void init() throws InterruptedException {
+        Thread.sleep(20);
+        initiated = true;
+    }
+
+    public static boolean isInitiated() {
+        return initiated;
+    }
+
+    public static void setInitiated(boolean initiated) {
+        TestConfigWithSlowInit.initiated = initiated;
+    }
+}
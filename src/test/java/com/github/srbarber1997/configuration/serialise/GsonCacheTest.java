@@ -0,0 +1,75 @@
+package com.github.srbarber1997.configuration.serialise;
+
+import com.github.srbarber1997.configuration.models.GsonSerialiserConfig;
+import com.github.srbarber1997.configuration.models.TestConfig;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class GsonCacheTest {
+
+    @Test
+    public void testGsonIsCreatedOncePerModel() {
+        AtomicInteger created = new AtomicInteger();
+        Gson gson = GsonCache.get(GsonCacheTest.class, () -> {
+            created.incrementAndGet();
+            return new Gson();
+        });
+
+        assertSame(gson, GsonCache.get(GsonCacheTest.class, Gson::new));
+        assertEquals(1, created.get());
+
+        GsonCache.invalidate(GsonCacheTest.class);
+        assertNotSame(gson, GsonCache.get(GsonCacheTest.class, Gson::new));
+        GsonCache.invalidate(GsonCacheTest.class);
+    }
+
+    @Test
+    public void testGsonSerialiserConfigReusesGson() {
+        assertSame(new GsonSerialiserConfig().gson(), new GsonSerialiserConfig().gson());
+    }
+
+    @Test
+    public void testAdapterOfDefaultGsonIsNotCached() {
+        TypeAdapter<Point> adapter = new TypeAdapter<Point>() {
+            @Override
+            public void write(JsonWriter out, Point value) throws IOException {
+                out.value(value.x);
+            }
+
+            @Override
+            public Point read(JsonReader in) throws IOException {
+                Point point = new Point();
+                point.x = in.nextInt();
+                return point;
+            }
+        };
+        assertNotSame(adapter, GsonCache.adapter(Point.class));
+
+        GsonCache.get(Point.class, () -> new GsonBuilder().registerTypeAdapter(Point.class, adapter).create());
+        assertSame(adapter, GsonCache.adapter(Point.class));
+        GsonCache.invalidate(Point.class);
+    }
+
+    @Test
+    public void testFromJson() throws IOException {
+        assertNull(GsonCache.fromJson(TestConfig.class, new StringReader("")));
+
+        TestConfig config = GsonCache.fromJson(TestConfig.class, new StringReader("{\"word\":\"hi\",\"num\":2}"));
+        assertEquals("hi", config.getWord());
+        assertEquals(2, config.getNum());
+    }
+
+    private static class Point {
+        private int x;
+    }
+}
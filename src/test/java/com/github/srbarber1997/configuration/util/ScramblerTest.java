@@ -0,0 +1,45 @@
+package com.github.srbarber1997.configuration.util;
+
+import com.google.common.io.CharStreams;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
+public class ScramblerTest {
+
+    private final Scrambler scrambler = new Scrambler("config loader");
+
+    private static final String JSON = "{\"word\":\"\\u00e9t\u00e9\",\"num\":5,\"list\":[1,2,3]}";
+
+    @Test
+    public void testStringRoundTrip() {
+        String scrambled = scrambler.scrambleCharacters(JSON);
+
+        assertNotEquals(JSON, scrambled);
+        assertEquals(JSON, scrambler.unscrambleCharacters(scrambled));
+    }
+
+    @Test
+    public void testStreamsMatchStrings() throws IOException {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+            large.append(JSON);
+        String json = large.toString();
+
+        StringWriter scrambled = new StringWriter();
+        try (Writer writer = scrambler.scramblingWriter(scrambled)) {
+            writer.write(json, 0, 10);
+            writer.write(json.charAt(10));
+            writer.write(json.toCharArray(), 11, json.length() - 11);
+        }
+        assertEquals(scrambler.scrambleCharacters(json), scrambled.toString());
+
+        String unscrambled = CharStreams.toString(scrambler.unscramblingReader(new StringReader(scrambled.toString())));
+        assertEquals(json, unscrambled);
+    }
+}